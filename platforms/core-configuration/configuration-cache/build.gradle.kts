@@ -60,19 +60,21 @@ dependencies {
     implementation(projects.modelCore)
     implementation(projects.persistentCache)
     implementation(projects.problemsApi)
+    implementation(projects.resourcesHttp)
     implementation(projects.serialization)
     implementation(projects.stdlibKotlinExtensions)
     implementation(projects.stdlibSerializationCodecs)
     implementation(projects.toolingApi)
 
+    implementation(libs.commonsHttpclient)
     implementation(libs.fastutil)
     implementation(libs.guava)
+    implementation(libs.httpcore)
     implementation(libs.kryo)
     implementation(libs.slf4jApi)
 
     runtimeOnly(projects.beanSerializationServices)
     runtimeOnly(projects.compositeBuilds)
-    runtimeOnly(projects.resourcesHttp)
     // TODO - move the isolatable serializer to model-core to live with the isolatable infrastructure
     runtimeOnly(projects.workers)
 
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+import java.io.File
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.zip.ZipEntry
+import java.util.zip.ZipInputStream
+import java.util.zip.ZipOutputStream
+
+
+/**
+ * Packs the files of a configuration cache entry into a single zip archive, so that the entry can be transferred as a whole.
+ *
+ * An entry is a flat directory, so the archive only contains plain file names.
+ */
+internal
+object ConfigurationCacheEntryArchive {
+
+    fun write(entryDir: File, output: OutputStream) {
+        val zip = ZipOutputStream(output)
+        entryDir.listFiles()!!
+            .filter { it.isFile }
+            .sortedBy { it.name }
+            .forEach { file ->
+                zip.putNextEntry(ZipEntry(file.name))
+                file.inputStream().use { it.copyTo(zip) }
+                zip.closeEntry()
+            }
+        zip.finish()
+    }
+
+    /**
+     * Extracts the files of [input] into [entryDir], rejecting any entry that would be written outside of it.
+     */
+    fun read(input: InputStream, entryDir: File, onFileCreated: (File) -> Unit) {
+        val zip = ZipInputStream(input)
+        generateSequence { zip.nextEntry }.forEach { entry ->
+            val file = fileFor(entry, entryDir)
+            file.outputStream().use { zip.copyTo(it) }
+            onFileCreated(file)
+        }
+    }
+
+    private
+    fun fileFor(entry: ZipEntry, entryDir: File): File {
+        val name = entry.name
+        require(!entry.isDirectory && isPlainFileName(name)) {
+            "Unexpected configuration cache entry file '$name'."
+        }
+        return entryDir.resolve(name).also { file ->
+            require(file.parentFile == entryDir) {
+                "Unexpected configuration cache entry file '$name'."
+            }
+        }
+    }
+
+    private
+    fun isPlainFileName(name: String) =
+        name.isNotEmpty() && name != "." && name != ".." && '/' !in name && '\\' !in name
+}
@@ -79,6 +79,7 @@ class ConfigurationCacheKey(
         putBoolean(encryptionConfiguration.isEncrypting)
         putHash(encryptionConfiguration.encryptionKeyHashCode)
         putBoolean(startParameter.isDeduplicatingStrings)
+        putBoolean(startParameter.isCompressing)
     }
 
     private
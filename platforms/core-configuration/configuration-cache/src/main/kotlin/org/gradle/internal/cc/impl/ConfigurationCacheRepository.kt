@@ -64,6 +64,51 @@ class ConfigurationCacheRepository(
         return StoreImpl(dirForEntry(cacheKey))
     }
 
+    /**
+     * Writes the files of the given entry to [output] as a single archive,
+     * suitable for [importEntry].
+     */
+    fun exportEntry(entryId: String, output: OutputStream) {
+        withExclusiveAccessToCache(dirForEntry(entryId)) { entryDir ->
+            ConfigurationCacheEntryArchive.write(entryDir, output)
+        }
+    }
+
+    /**
+     * Creates the entry [entryId] from an archive produced by [exportEntry].
+     *
+     * The entry is deleted if the archive cannot be read completely.
+     */
+    fun importEntry(entryId: String, input: InputStream) {
+        withExclusiveAccessToCache(dirForEntry(entryId)) { entryDir ->
+            require(!entryDir.exists()) { "Configuration cache entry '$entryId' already exists." }
+            Files.createDirectories(entryDir.toPath())
+            chmod(entryDir, 448) // octal 0700
+            try {
+                ConfigurationCacheEntryArchive.read(input, entryDir) { file ->
+                    chmod(file, 384) // octal 0600
+                }
+                markAccessed(entryDir)
+            } catch (e: Exception) {
+                entryDir.deleteRecursively()
+                throw e
+            }
+        }
+    }
+
+    /**
+     * Runs [action] with a new temporary file in the cache directory, deleting the file afterwards.
+     */
+    fun <T> withTemporaryFile(action: (File) -> T): T {
+        val file = Files.createTempFile(cache.baseDir.toPath(), "remote", ".tmp").toFile()
+        try {
+            chmod(file, 384) // octal 0600
+            return action(file)
+        } finally {
+            Files.deleteIfExists(file.toPath())
+        }
+    }
+
     interface CleanupContext {
         val eligibleFilesFinder: FilesFinder
         fun dirForEntry(entry: String): File
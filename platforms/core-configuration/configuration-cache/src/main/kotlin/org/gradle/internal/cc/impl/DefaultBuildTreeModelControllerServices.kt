@@ -49,12 +49,19 @@ import org.gradle.internal.cc.impl.initialization.InstrumentedExecutionAccessLis
 import org.gradle.internal.cc.impl.initialization.VintageInjectedClasspathInstrumentationStrategy
 import org.gradle.internal.cc.impl.models.DefaultToolingModelParameterCarrierFactory
 import org.gradle.internal.cc.impl.problems.ConfigurationCacheProblems
+import org.gradle.internal.cc.impl.profile.ConfigurationCacheProfiler
+import org.gradle.internal.cc.impl.remote.ConfigurationCacheRemoteEntries
+import org.gradle.internal.cc.impl.remote.HttpConfigurationCacheRemoteStorage
 import org.gradle.internal.cc.impl.services.ConfigurationCacheBuildTreeModelSideEffectExecutor
 import org.gradle.internal.cc.impl.services.DefaultBuildModelParameters
 import org.gradle.internal.cc.impl.services.DefaultDeferredRootBuildGradle
 import org.gradle.internal.cc.impl.services.VintageEnvironmentChangeTracker
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.configuration.problems.DefaultProblemFactory
 import org.gradle.internal.configuration.problems.ProblemFactory
+import org.gradle.internal.encryption.EncryptionService
+import org.gradle.internal.resource.transport.http.HttpClientHelper
+import org.gradle.internal.resource.transport.http.SslContextFactory
 import org.gradle.internal.scripts.ProjectScopedScriptResolution
 import org.gradle.internal.serialize.codecs.core.jos.JavaSerializationEncodingLookup
 import org.gradle.internal.service.Provides
@@ -64,6 +71,7 @@ import org.gradle.internal.snapshot.ValueSnapshotter
 import org.gradle.plugin.use.resolve.service.internal.InjectedClasspathInstrumentationStrategy
 import org.gradle.tooling.provider.model.internal.ToolingModelParameterCarrier
 import org.gradle.util.internal.IncubationLogger
+import java.net.URI
 
 
 class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices {
@@ -246,6 +254,7 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
             registration.add(ConfigurationCacheEnvironmentChangeTracker::class.java)
             registration.add(ConfigurationCacheProblemsListener::class.java, DefaultConfigurationCacheProblemsListener::class.java)
             registration.add(ConfigurationCacheProblems::class.java)
+            registration.add(ConfigurationCacheProfiler::class.java)
             registration.add(BuildTreeConfigurationCache::class.java, DefaultConfigurationCache::class.java)
             registration.add(InstrumentedExecutionAccessListenerRegistry::class.java)
             registration.add(ConfigurationCacheFingerprintController::class.java)
@@ -293,6 +302,27 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
         fun createBuildTreeWorkGraphPreparer(buildRegistry: BuildStateRegistry, buildTaskSelector: BuildTaskSelector, cache: BuildTreeConfigurationCache): BuildTreeWorkGraphPreparer {
             return ConfigurationCacheAwareBuildTreeWorkGraphPreparer(DefaultBuildTreeWorkGraphPreparer(buildRegistry, buildTaskSelector), cache)
         }
+
+        @Provides
+        fun createConfigurationCacheRemoteEntries(
+            startParameter: ConfigurationCacheStartParameter,
+            cacheRepository: ConfigurationCacheRepository,
+            encryptionService: EncryptionService,
+            executorFactory: ExecutorFactory,
+            httpClientHelperFactory: HttpClientHelper.Factory,
+            sslContextFactory: SslContextFactory
+        ): ConfigurationCacheRemoteEntries =
+            ConfigurationCacheRemoteEntries(
+                lazy {
+                    startParameter.remoteCacheUrl?.let { url ->
+                        HttpConfigurationCacheRemoteStorage(URI(url), httpClientHelperFactory, sslContextFactory)
+                    }
+                },
+                startParameter.isRemoteCachePush,
+                cacheRepository,
+                encryptionService,
+                executorFactory
+            )
     }
 
     private
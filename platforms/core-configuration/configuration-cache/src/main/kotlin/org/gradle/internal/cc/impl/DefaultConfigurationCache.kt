@@ -48,6 +48,7 @@ import org.gradle.internal.cc.impl.metadata.ProjectMetadataController
 import org.gradle.internal.cc.impl.models.BuildTreeModelSideEffectStore
 import org.gradle.internal.cc.impl.models.IntermediateModelController
 import org.gradle.internal.cc.impl.problems.ConfigurationCacheProblems
+import org.gradle.internal.cc.impl.remote.ConfigurationCacheRemoteEntries
 import org.gradle.internal.cc.impl.services.ConfigurationCacheBuildTreeModelSideEffectExecutor
 import org.gradle.internal.cc.impl.services.DeferredRootBuildGradle
 import org.gradle.internal.component.local.model.LocalComponentGraphResolveState
@@ -97,7 +98,8 @@ class DefaultConfigurationCache internal constructor(
     private val fileSystemAccess: FileSystemAccess,
     private val calculatedValueContainerFactory: CalculatedValueContainerFactory,
     private val modelSideEffectExecutor: ConfigurationCacheBuildTreeModelSideEffectExecutor,
-    private val deferredRootBuildGradle: DeferredRootBuildGradle
+    private val deferredRootBuildGradle: DeferredRootBuildGradle,
+    private val remoteEntries: ConfigurationCacheRemoteEntries
 ) : BuildTreeConfigurationCache, Stoppable {
 
     private
@@ -343,6 +345,21 @@ class DefaultConfigurationCache internal constructor(
             cacheIO.writeCacheEntryDetailsTo(buildStateRegistry, usedModels, usedMetadata, sideEffects, fileFor(StateType.Entry))
         }
         updateMostRecentEntry(entryId)
+        remoteEntries.storeLater(cacheKey.string, entryId)
+    }
+
+    private
+    fun searchForValidRemoteEntry(): EntrySearchResult? {
+        val remoteEntry = CandidateEntry(UUID.randomUUID().toString())
+        if (!remoteEntries.load(cacheKey.string, remoteEntry.id)) {
+            return null
+        }
+        val result = checkCandidate(remoteEntry)
+        if (result.checkedFingerprint !is CheckedFingerprint.Valid) {
+            // Not tracked as a candidate, so that the remote entry is fetched again once it has been replaced
+            scheduleForCollection(listOf(remoteEntry))
+        }
+        return result
     }
 
     private
@@ -451,8 +468,14 @@ class DefaultConfigurationCache internal constructor(
 
     private
     fun checkFingerprint(): CheckedFingerprint = buildOperationRunner.withFingerprintCheckOperations {
-        val candidates = loadCandidateEntries()
-        val searchResult = searchForValidEntry(candidates)
+        val localResult = searchForValidEntry(loadCandidateEntries())
+        val searchResult = when {
+            localResult.checkedFingerprint is CheckedFingerprint.Valid -> localResult
+            // No local entry can be reused, including when the local entries are stale
+            else -> searchForValidRemoteEntry()?.takeIf {
+                it.checkedFingerprint is CheckedFingerprint.Valid || localResult.checkedFingerprint is CheckedFingerprint.NotFound
+            } ?: localResult
+        }
         val checkedFingerprint = searchResult.checkedFingerprint
         if (checkedFingerprint is CheckedFingerprint.Valid) {
             updateMostRecentEntry(checkedFingerprint.entryId)
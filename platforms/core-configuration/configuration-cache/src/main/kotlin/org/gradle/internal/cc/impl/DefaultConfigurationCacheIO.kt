@@ -29,8 +29,13 @@ import org.gradle.internal.cc.base.serialize.withGradleIsolate
 import org.gradle.internal.cc.impl.cacheentry.EntryDetails
 import org.gradle.internal.cc.impl.cacheentry.ModelKey
 import org.gradle.internal.cc.impl.initialization.ConfigurationCacheStartParameter
+import org.gradle.internal.cc.impl.io.CompressingOutputStream
+import org.gradle.internal.cc.impl.io.CompressionStatistics
+import org.gradle.internal.cc.impl.io.DecompressingInputStream
 import org.gradle.internal.cc.impl.io.safeWrap
 import org.gradle.internal.cc.impl.problems.ConfigurationCacheProblems
+import org.gradle.internal.cc.impl.profile.CompositeTracer
+import org.gradle.internal.cc.impl.profile.ConfigurationCacheProfiler
 import org.gradle.internal.cc.impl.serialize.Codecs
 import org.gradle.internal.cc.impl.serialize.DefaultClassDecoder
 import org.gradle.internal.cc.impl.serialize.DefaultClassEncoder
@@ -101,7 +106,8 @@ class DefaultConfigurationCacheIO internal constructor(
     private val eventEmitter: BuildOperationProgressEventEmitter,
     private val classLoaderScopeRegistryListener: ConfigurationCacheClassLoaderScopeRegistryListener,
     private val classLoaderScopeRegistry: ClassLoaderScopeRegistry,
-    private val instantiatorFactory: InstantiatorFactory
+    private val instantiatorFactory: InstantiatorFactory,
+    private val profiler: ConfigurationCacheProfiler
 ) : ConfigurationCacheBuildTreeIO, ConfigurationCacheIncludedBuildIO {
 
     private
@@ -272,14 +278,14 @@ class DefaultConfigurationCacheIO internal constructor(
     private
     fun stringEncoderFor(stringsFile: ConfigurationCacheStateFile): StringEncoder =
         if (isUsingParallelStringDeduplicationStrategy(stringsFile))
-            outputStreamFor(stringsFile.stateType, stringsFile::outputStream).let(::ParallelStringEncoder)
+            outputStreamFor(stringsFile.stateFile.name, stringsFile.stateType, stringsFile::outputStream).let(::ParallelStringEncoder)
         else
             InlineStringEncoder
 
     private
     fun stringDecoderFor(stringsFile: ConfigurationCacheStateFile): StringDecoder =
         if (isUsingParallelStringDeduplicationStrategy(stringsFile))
-            inputStreamFor(stringsFile.stateType, stringsFile::inputStream).let(::ParallelStringDecoder)
+            inputStreamFor(stringsFile.stateFile.name, stringsFile.stateType, stringsFile::inputStream).let(::ParallelStringDecoder)
         else
             InlineStringDecoder
 
@@ -399,37 +405,63 @@ class DefaultConfigurationCacheIO internal constructor(
         profile: () -> String,
         specialEncoders: SpecialEncoders,
     ): Pair<CloseableWriteContext, Codecs> =
-        encoderFor(stateType, outputStream).let { encoder ->
+        encoderFor(name, stateType, outputStream).let { encoder ->
             writeContextFor(
                 name,
                 encoder,
-                loggingTracerFor(profile, encoder),
+                tracerFor(profile, encoder),
                 codecs,
                 specialEncoders
             ) to codecs
         }
 
     private
-    fun encoderFor(stateType: StateType, outputStream: () -> OutputStream): PositionAwareEncoder =
-        outputStreamFor(stateType, outputStream).let { stream ->
+    fun encoderFor(name: String, stateType: StateType, outputStream: () -> OutputStream): PositionAwareEncoder =
+        outputStreamFor(name, stateType, outputStream).let { stream ->
             if (isUsingSequentialStringDeduplicationStrategy(stateType)) StringDeduplicatingKryoBackedEncoder(stream)
             else KryoBackedEncoder(stream)
         }
 
     private
-    fun decoderFor(stateType: StateType, inputStream: () -> InputStream): Decoder =
-        inputStreamFor(stateType, inputStream).let { stream ->
-            if (isUsingSequentialStringDeduplicationStrategy(stateType)) StringDeduplicatingKryoBackedDecoder(stream)
-            else KryoBackedDecoder(stream)
+    fun decoderFor(name: String, stateType: StateType, inputStream: () -> InputStream): Pair<Decoder, () -> Long> =
+        inputStreamFor(name, stateType, inputStream).let { stream ->
+            if (isUsingSequentialStringDeduplicationStrategy(stateType)) StringDeduplicatingKryoBackedDecoder(stream).let { it to it::getReadPosition }
+            else KryoBackedDecoder(stream).let { it to it::getReadPosition }
         }
 
+    /**
+     * Data is compressed before it is encrypted, as encrypted data does not compress.
+     */
+    private
+    fun outputStreamFor(name: String, stateType: StateType, outputStream: () -> OutputStream): OutputStream =
+        maybeCompress(
+            { maybeEncrypt(stateType, outputStream, encryptionService::outputStream) },
+            { CompressingOutputStream(it) { statistics -> logCompressionStatistics("Stored", name, statistics) } }
+        )
+
     private
-    fun outputStreamFor(stateType: StateType, outputStream: () -> OutputStream) =
-        maybeEncrypt(stateType, outputStream, encryptionService::outputStream)
+    fun inputStreamFor(name: String, stateType: StateType, inputStream: () -> InputStream): InputStream =
+        maybeCompress(
+            { maybeEncrypt(stateType, inputStream, encryptionService::inputStream) },
+            { DecompressingInputStream(it) { statistics -> logCompressionStatistics("Loaded", name, statistics) } }
+        )
 
     private
-    fun inputStreamFor(stateType: StateType, inputStream: () -> InputStream) =
-        maybeEncrypt(stateType, inputStream, encryptionService::inputStream)
+    fun <I : Closeable, O : I> maybeCompress(inner: () -> I, outer: (I) -> O): I =
+        if (startParameter.isCompressing) safeWrap(inner, outer)
+        else inner()
+
+    /**
+     * Logged at info level, or at the level of the configuration cache's tracing when that is enabled.
+     */
+    private
+    fun logCompressionStatistics(operation: String, name: String, statistics: CompressionStatistics) {
+        logger.log(
+            loggingTracerLogLevel() ?: LogLevel.INFO,
+            "{} compressed state '{}': {} bytes, {} bytes on disk, {} ms spent in compression codec",
+            operation, name, statistics.uncompressedBytes, statistics.compressedBytes, statistics.codecTimeMillis
+        )
+    }
 
     private
     fun <I : Closeable, O : I> maybeEncrypt(stateType: StateType, inner: () -> I, outer: (I) -> O): I =
@@ -456,6 +488,17 @@ class DefaultConfigurationCacheIO internal constructor(
     fun isUsingObjectSharingStrategy(stateFile: ConfigurationCacheStateFile) =
         stateFile.stateType == StateType.Work && startParameter.isSharingObjects
 
+    private
+    fun tracerFor(profile: () -> String, encoder: PositionAwareEncoder): Tracer? {
+        val loggingTracer = loggingTracerFor(profile, encoder)
+        val profilingTracer = profiler.tracerFor(ConfigurationCacheProfiler.Operation.Store, encoder::getWritePosition)
+        return when {
+            loggingTracer == null -> profilingTracer
+            profilingTracer == null -> loggingTracer
+            else -> CompositeTracer(loggingTracer, profilingTracer)
+        }
+    }
+
     private
     fun loggingTracerFor(profile: () -> String, encoder: PositionAwareEncoder) =
         loggingTracerLogLevel()?.let { level ->
@@ -525,7 +568,9 @@ class DefaultConfigurationCacheIO internal constructor(
         stateType: StateType,
         inputStream: () -> InputStream,
         specialDecoders: SpecialDecoders
-    ) = readContextFor(name, decoderFor(stateType, inputStream), specialDecoders)
+    ) = decoderFor(name, stateType, inputStream).let { (decoder, readPosition) ->
+        readContextFor(name, decoder, specialDecoders, profiler.tracerFor(ConfigurationCacheProfiler.Operation.Load, readPosition))
+    }
 
     override fun <T> runReadOperation(decoder: Decoder, readOperation: suspend ReadContext.(codecs: Codecs) -> T): T {
         val (context, codecs) = readContextFor("unnamed", decoder, SpecialDecoders())
@@ -536,8 +581,9 @@ class DefaultConfigurationCacheIO internal constructor(
     fun readContextFor(
         name: String? = null,
         decoder: Decoder,
-        specialDecoders: SpecialDecoders
-    ) = readContextFor(name, decoder, codecs, specialDecoders) to codecs
+        specialDecoders: SpecialDecoders,
+        tracer: Tracer? = null
+    ) = readContextFor(name, decoder, codecs, specialDecoders, tracer) to codecs
 
     private
     fun writeContextFor(
@@ -563,7 +609,8 @@ class DefaultConfigurationCacheIO internal constructor(
         name: String? = null,
         decoder: Decoder,
         codecs: Codecs,
-        specialDecoders: SpecialDecoders
+        specialDecoders: SpecialDecoders,
+        tracer: Tracer? = null
     ): CloseableReadContext = DefaultReadContext(
         name,
         codecs.userTypesCodec(),
@@ -572,7 +619,8 @@ class DefaultConfigurationCacheIO internal constructor(
         logger,
         problems,
         classDecoder(),
-        specialDecoders
+        specialDecoders,
+        tracer
     )
 
     private
@@ -603,6 +651,9 @@ class DefaultConfigurationCacheIO internal constructor(
                     subContext.push(baseContext.isolate.owner, subCodecs.internalTypesCodec())
                 }.first
             }
+
+        override fun storedSizeOf(path: Path): Long =
+            baseFile.relatedStateFile(path).stateFile.file.length()
     }
 
     private
@@ -38,6 +38,9 @@ import org.gradle.internal.util.NumberUtil.ordinal
 import org.gradle.util.Path
 import java.io.File
 import java.net.URI
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
 import java.util.function.Consumer
 
 
@@ -59,6 +62,7 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         val ignoreInputsDuringConfigurationCacheStore: Boolean
         val instrumentationAgentUsed: Boolean
         val ignoredFileSystemCheckInputs: String?
+        val fileSystemCheckExecutor: Executor?
         fun gradleProperty(propertyName: String): String?
         fun fingerprintOf(fileCollection: FileCollectionInternal): HashCode
         fun hashCodeAndTypeOf(file: File): Pair<HashCode, FileType>
@@ -72,21 +76,27 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
 
     suspend fun ReadContext.checkBuildScopedFingerprint(): InvalidationReason? {
         // TODO: log some debug info
+        val fileSystemInputs = mutableListOf<ConfigurationCacheFingerprint>()
         while (true) {
             when (val input = read()) {
                 null -> break
                 is ConfigurationCacheFingerprint -> {
                     // An input that is not specific to a project. If it is out-of-date, then invalidate the whole cache entry and skip any further checks
-                    val reason = check(input)
-                    if (reason != null) {
-                        return reason
+                    if (isCheckedInParallel(input)) {
+                        fileSystemInputs.add(input)
+                    } else {
+                        // Check the preceding file system inputs first, so the first out-of-date input in the fingerprint is reported
+                        val reason = checkInParallel(fileSystemInputs) ?: check(input)
+                        if (reason != null) {
+                            return reason
+                        }
                     }
                 }
 
                 else -> error("Unexpected configuration cache fingerprint: $input")
             }
         }
-        return null
+        return checkInParallel(fileSystemInputs)
     }
 
     @Suppress("NestedBlockDepth")
@@ -94,8 +104,20 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         // TODO: log some debug info
         var firstInvalidatedPath: Path? = null
         val projects = hashMapOf<Path, ProjectInvalidationState>()
+        val projectInputs = mutableListOf<ProjectSpecificFingerprint.ProjectFingerprint>()
         while (true) {
-            when (val input = read()) {
+            val input = read()
+            if (input is ProjectSpecificFingerprint.ProjectFingerprint) {
+                projectInputs.add(input)
+                continue
+            }
+            // Check the preceding project inputs before handling other entries, as these can depend on the projects being invalidated
+            checkProjectInputs(projectInputs, projects)?.let { path ->
+                if (firstInvalidatedPath == null) {
+                    firstInvalidatedPath = path
+                }
+            }
+            when (input) {
                 null -> break
                 is ProjectSpecificFingerprint.ProjectIdentity -> {
                     val state = projects.entryFor(input.identityPath)
@@ -103,21 +125,6 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
                     state.projectPath = input.projectPath
                 }
 
-                is ProjectSpecificFingerprint.ProjectFingerprint -> {
-                    // An input that is specific to a project. If it is out-of-date, then invalidate that project's values and continue checking values
-                    // Don't check a value for a project that is already out-of-date
-                    val state = projects.entryFor(input.projectIdentityPath)
-                    if (!state.isInvalid) {
-                        val reason = check(input.value)
-                        if (reason != null) {
-                            if (firstInvalidatedPath == null) {
-                                firstInvalidatedPath = input.projectIdentityPath
-                            }
-                            state.invalidate(reason)
-                        }
-                    }
-                }
-
                 is ProjectSpecificFingerprint.ProjectDependency -> {
                     val consumer = projects.entryFor(input.consumingProject)
                     val target = projects.entryFor(input.targetProject)
@@ -175,6 +182,86 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         }
     }
 
+    /**
+     * Checks the given inputs that are specific to a project, in order. If an input is out-of-date, then invalidate that project's values and continue checking values.
+     * Don't check a value for a project that is already out-of-date.
+     *
+     * @return the path of the first project invalidated by the inputs, if any
+     */
+    private
+    fun checkProjectInputs(inputs: MutableList<ProjectSpecificFingerprint.ProjectFingerprint>, projects: MutableMap<Path, ProjectInvalidationState>): Path? {
+        if (inputs.isEmpty()) {
+            return null
+        }
+        val states = inputs.map { projects.entryFor(it.projectIdentityPath) }
+        val checkedInParallel = inputs.indices.map { index -> !states[index].isInvalid && isCheckedInParallel(inputs[index].value) }
+        val parallelChecks = inputs.indices.map { index ->
+            if (checkedInParallel[index]) checkAsync(inputs[index].value) else null
+        }
+
+        var firstInvalidatedPath: Path? = null
+        inputs.forEachIndexed { index, input ->
+            val state = states[index]
+            if (!state.isInvalid) {
+                val reason = parallelChecks[index].let { if (it != null) it.await() else check(input.value) }
+                if (reason != null) {
+                    if (firstInvalidatedPath == null) {
+                        firstInvalidatedPath = input.projectIdentityPath
+                    }
+                    state.invalidate(reason)
+                }
+            }
+        }
+        inputs.clear()
+        return firstInvalidatedPath
+    }
+
+    /**
+     * Checks the given inputs concurrently, reporting the first out-of-date input in order.
+     * Inputs following an out-of-date input that have not been checked yet are skipped.
+     */
+    private
+    fun checkInParallel(inputs: MutableList<ConfigurationCacheFingerprint>): InvalidationReason? {
+        if (inputs.isEmpty()) {
+            return null
+        }
+        val checks = inputs.map { checkAsync(it) }
+        inputs.clear()
+        for ((index, pendingCheck) in checks.withIndex()) {
+            val reason = pendingCheck.await()
+            if (reason != null) {
+                checks.drop(index + 1).forEach { it.cancel(false) }
+                return reason
+            }
+        }
+        return null
+    }
+
+    private
+    fun checkAsync(input: ConfigurationCacheFingerprint): CompletableFuture<InvalidationReason?> =
+        CompletableFuture.supplyAsync({ check(input) }, host.fileSystemCheckExecutor!!)
+
+    private
+    fun <T> CompletableFuture<T>.await(): T =
+        try {
+            get()
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        }
+
+    /**
+     * Inputs that only query the virtual file system are independent of each other and are safe to check concurrently.
+     * All other inputs are checked sequentially, as they may run build logic, resolve file collections or depend on the state of the build environment.
+     */
+    private
+    fun isCheckedInParallel(input: ConfigurationCacheFingerprint) =
+        host.fileSystemCheckExecutor != null && when (input) {
+            is ConfigurationCacheFingerprint.InputFile,
+            is ConfigurationCacheFingerprint.InputFileSystemEntry,
+            is ConfigurationCacheFingerprint.DirectoryChildren -> true
+            else -> false
+        }
+
     private
     fun MutableMap<Path, ProjectInvalidationState>.entryFor(path: Path) = computeIfAbsent(path, ::ProjectInvalidationState)
 
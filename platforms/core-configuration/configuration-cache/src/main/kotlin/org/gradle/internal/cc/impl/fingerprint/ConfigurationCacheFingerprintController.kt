@@ -35,6 +35,7 @@ import org.gradle.internal.cc.impl.InputTrackingState
 import org.gradle.internal.cc.impl.initialization.ConfigurationCacheStartParameter
 import org.gradle.internal.cc.impl.problems.ConfigurationCacheProblems
 import org.gradle.internal.cc.impl.services.RemoteScriptUpToDateChecker
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.concurrent.Stoppable
 import org.gradle.internal.configuration.problems.CommonReport
 import org.gradle.internal.configuration.problems.DocumentationSection
@@ -70,6 +71,7 @@ import org.gradle.util.internal.GFileUtils
 import java.io.File
 import java.net.URI
 import java.nio.file.Files
+import java.util.concurrent.Executor
 import java.util.function.Supplier
 
 
@@ -101,6 +103,7 @@ class ConfigurationCacheFingerprintController internal constructor(
     private val encryptionService: EncryptionService,
     private val configurationTimeBarrier: ConfigurationTimeBarrier,
     private val buildStateRegistry: BuildStateRegistry,
+    private val executorFactory: ExecutorFactory,
 ) : Stoppable, ProjectScopedScriptResolution {
 
     interface Host {
@@ -118,6 +121,11 @@ class ConfigurationCacheFingerprintController internal constructor(
             )
         )
 
+    private
+    val fileSystemCheckExecutor = lazy {
+        executorFactory.create("Configuration cache fingerprint check", Runtime.getRuntime().availableProcessors())
+    }
+
     private
     abstract class WritingState {
 
@@ -348,6 +356,9 @@ class ConfigurationCacheFingerprintController internal constructor(
 
     override fun stop() {
         writingState = writingState.dispose()
+        if (fileSystemCheckExecutor.isInitialized()) {
+            fileSystemCheckExecutor.value.stop()
+        }
     }
 
     suspend fun ReadContext.checkBuildScopedFingerprint(host: Host) =
@@ -491,6 +502,9 @@ class ConfigurationCacheFingerprintController internal constructor(
         override val ignoredFileSystemCheckInputs: String?
             get() = startParameter.ignoredFileSystemCheckInputs
 
+        override val fileSystemCheckExecutor: Executor?
+            get() = if (startParameter.isParallelFingerprintCheck) this@ConfigurationCacheFingerprintController.fileSystemCheckExecutor.value else null
+
         override fun gradleProperty(propertyName: String): String? =
             gradleProperties.find(propertyName)?.uncheckedCast()
 
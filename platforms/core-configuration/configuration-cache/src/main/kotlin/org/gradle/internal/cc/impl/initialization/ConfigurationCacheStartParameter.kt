@@ -29,6 +29,7 @@ import org.gradle.internal.cc.impl.ConfigurationCacheLoggingParameters
 import org.gradle.internal.cc.impl.Workarounds
 import org.gradle.internal.deprecation.DeprecationLogger
 import org.gradle.internal.extensions.core.getInternalFlag
+import org.gradle.internal.extensions.core.getInternalString
 import org.gradle.internal.extensions.stdlib.unsafeLazy
 import org.gradle.internal.service.scopes.Scope
 import org.gradle.internal.service.scopes.ServiceScope
@@ -104,6 +105,14 @@ class ConfigurationCacheStartParameter internal constructor(
      */
     val isSharingObjects: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.share-objects", true)
 
+    /**
+     * Whether configuration cache state files should be compressed
+     * in order to save space on disk and to reduce I/O on a cache hit, at the expense of CPU time.
+     *
+     * The default is `false`.
+     */
+    val isCompressing: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.compress", false)
+
     /**
      * Whether configuration cache storing/loading should be done in parallel.
      *
@@ -133,6 +142,37 @@ class ConfigurationCacheStartParameter internal constructor(
      */
     val isParallelLoad = options.getInternalFlag("org.gradle.configuration-cache.internal.parallel-load", true)
 
+    /**
+     * Whether file system inputs of the configuration cache fingerprint should be checked in parallel.
+     *
+     * The default is `false`.
+     */
+    val isParallelFingerprintCheck = options.getInternalFlag("org.gradle.configuration-cache.internal.parallel-fingerprint-check", false)
+
+    /**
+     * Whether the bytes and time spent storing and loading the configuration cache state should be
+     * accounted for per type, task type and project, and written to a profile report.
+     *
+     * The default is `false`.
+     */
+    val isProfiling: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.profile", false)
+
+    /**
+     * The URL of an HTTP server used to share configuration cache entries between machines.
+     *
+     * Entries are only shared when encryption is enabled, as the encryption key is used to authenticate them.
+     *
+     * The default is `null`, meaning entries are only stored locally.
+     */
+    val remoteCacheUrl: String? = options.getInternalString("org.gradle.configuration-cache.internal.remote-url", null)
+
+    /**
+     * Whether configuration cache entries stored by this build should be uploaded to the [remote cache][remoteCacheUrl].
+     *
+     * The default is `false`.
+     */
+    val isRemoteCachePush: Boolean = options.getInternalFlag("org.gradle.configuration-cache.internal.remote-push", false)
+
     val gradleProperties: Map<String, Any?>
         get() = startParameter.projectProperties
             .filterKeys { !Workarounds.isIgnoredStartParameterProperty(it) }
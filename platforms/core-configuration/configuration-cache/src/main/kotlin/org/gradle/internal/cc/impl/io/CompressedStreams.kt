@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.io
+
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+import java.util.zip.Inflater
+import java.util.zip.InflaterInputStream
+
+
+private
+const val COMPRESSION_BUFFER_SIZE = 64 * 1024
+
+
+/**
+ * Compression statistics for a single state file, reported when its stream is closed.
+ *
+ * @param uncompressedBytes the number of bytes written to or read from the stream by the encoder or decoder
+ * @param compressedBytes the number of bytes stored on disk
+ * @param codecTimeMillis the time spent compressing or decompressing, including writing to or reading from the underlying stream
+ */
+internal
+data class CompressionStatistics(
+    val uncompressedBytes: Long,
+    val compressedBytes: Long,
+    val codecTimeMillis: Long
+)
+
+
+/**
+ * Compresses the data written to [outputStream] with a fast deflate level,
+ * trading some compression ratio for throughput.
+ */
+internal
+class CompressingOutputStream(
+    outputStream: OutputStream,
+    private val onClose: (CompressionStatistics) -> Unit
+) : DeflaterOutputStream(outputStream, Deflater(Deflater.BEST_SPEED), COMPRESSION_BUFFER_SIZE) {
+
+    private
+    var codecTimeNanos = 0L
+
+    private
+    var closed = false
+
+    override fun write(b: ByteArray, off: Int, len: Int) {
+        val start = System.nanoTime()
+        super.write(b, off, len)
+        codecTimeNanos += System.nanoTime() - start
+    }
+
+    override fun close() {
+        if (closed) {
+            return
+        }
+        closed = true
+        try {
+            val start = System.nanoTime()
+            finish()
+            codecTimeNanos += System.nanoTime() - start
+            onClose(CompressionStatistics(def.bytesRead, def.bytesWritten, codecTimeNanos / 1_000_000))
+        } finally {
+            def.end()
+            out.close()
+        }
+    }
+}
+
+
+/**
+ * Decompresses data written by [CompressingOutputStream].
+ */
+internal
+class DecompressingInputStream(
+    inputStream: InputStream,
+    private val onClose: (CompressionStatistics) -> Unit
+) : InflaterInputStream(inputStream, Inflater(), COMPRESSION_BUFFER_SIZE) {
+
+    private
+    var codecTimeNanos = 0L
+
+    private
+    var closed = false
+
+    override fun read(b: ByteArray, off: Int, len: Int): Int {
+        val start = System.nanoTime()
+        try {
+            return super.read(b, off, len)
+        } finally {
+            codecTimeNanos += System.nanoTime() - start
+        }
+    }
+
+    override fun close() {
+        if (closed) {
+            return
+        }
+        closed = true
+        try {
+            onClose(CompressionStatistics(inf.bytesWritten, inf.bytesRead, codecTimeNanos / 1_000_000))
+        } finally {
+            inf.end()
+            `in`.close()
+        }
+    }
+}
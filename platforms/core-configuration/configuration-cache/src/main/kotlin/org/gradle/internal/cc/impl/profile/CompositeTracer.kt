@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.profile
+
+import org.gradle.internal.serialize.graph.Tracer
+
+
+/**
+ * Forwards frames to two tracers, closing them in the reverse order they were opened in,
+ * so that each tracer sees properly nested frames.
+ */
+internal
+class CompositeTracer(private val first: Tracer, private val second: Tracer) : Tracer {
+    override fun open(frame: String, instance: Any?) {
+        first.open(frame, instance)
+        second.open(frame, instance)
+    }
+
+    override fun close(frame: String, instance: Any?) {
+        second.close(frame, instance)
+        first.close(frame, instance)
+    }
+}
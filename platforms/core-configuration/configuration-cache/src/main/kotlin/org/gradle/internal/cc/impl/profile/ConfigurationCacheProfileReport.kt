@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.profile
+
+import org.gradle.internal.cc.impl.problems.JsonWriter
+import java.io.File
+import java.io.Writer
+import java.util.Locale
+import java.util.concurrent.TimeUnit
+
+
+/**
+ * Writes a [ConfigurationCacheProfiler] profile as `configuration-cache-profile.json`, listing every entry,
+ * and as `configuration-cache-profile.html`, listing the [top offenders][TOP_ENTRIES] of each category.
+ */
+internal
+class ConfigurationCacheProfileReport(
+    private val operations: List<OperationSummary>
+) {
+
+    data class Entry(
+        val name: String,
+        val bytes: Long,
+        val nanos: Long,
+        val count: Long
+    )
+
+    data class OperationSummary(
+        val operation: String,
+        val byType: List<Entry>,
+        val byTaskType: List<Entry>,
+        val byProject: List<Entry>
+    ) {
+        val categories: List<Pair<String, List<Entry>>>
+            get() = listOf(
+                "types" to byType,
+                "taskTypes" to byTaskType,
+                "projects" to byProject
+            )
+    }
+
+    /**
+     * Writes both reports to [outputDirectory] and returns the HTML report file.
+     */
+    fun writeTo(outputDirectory: File): File {
+        outputDirectory.mkdirs()
+        outputDirectory.resolve("configuration-cache-profile.json").bufferedWriter().use(::writeJson)
+        return outputDirectory.resolve("configuration-cache-profile.html").also { file ->
+            file.bufferedWriter().use(::writeHtml)
+        }
+    }
+
+    private
+    fun writeJson(writer: Writer) {
+        JsonWriter(writer).run {
+            jsonObject {
+                property("operations") {
+                    jsonObjectList(operations) { summary ->
+                        property("operation", summary.operation)
+                        summary.categories.forEach { (category, entries) ->
+                            property(category) {
+                                jsonObjectList(entries) { entry ->
+                                    property("name", entry.name)
+                                    property("bytes", entry.bytes)
+                                    property("timeMillis", entry.nanos.toMillis())
+                                    property("count", entry.count)
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            flush()
+        }
+    }
+
+    private
+    fun writeHtml(writer: Writer) {
+        writer.run {
+            appendLine("<!DOCTYPE html>")
+            appendLine("<html><head><meta charset=\"utf-8\"><title>Configuration Cache Profile</title>")
+            appendLine("<style>body{font-family:sans-serif}table{border-collapse:collapse;margin-bottom:2em}td,th{padding:2px 8px;border-bottom:1px solid #ddd}td.n{text-align:right}</style>")
+            appendLine("</head><body>")
+            appendLine("<h1>Configuration Cache Profile</h1>")
+            appendLine("<p>Sizes are measured before compression and encryption. Types are charged for their own state only, tasks and projects for the whole state of their tasks.</p>")
+            operations.forEach { summary ->
+                appendLine("<h2>${summary.operation.replaceFirstChar { it.titlecase(Locale.ROOT) }}</h2>")
+                summary.categories.forEach { (category, entries) ->
+                    if (entries.isNotEmpty()) {
+                        writeTable(headingFor(category), entries)
+                    }
+                }
+            }
+            appendLine("</body></html>")
+        }
+    }
+
+    private
+    fun Writer.writeTable(heading: String, entries: List<Entry>) {
+        val totalBytes = entries.sumOf { it.bytes }.coerceAtLeast(1)
+        appendLine("<h3>$heading (top ${minOf(TOP_ENTRIES, entries.size)} of ${entries.size})</h3>")
+        appendLine("<table><tr><th>Name</th><th>Bytes</th><th>%</th><th>Time (ms)</th><th>Count</th></tr>")
+        entries.take(TOP_ENTRIES).forEach { entry ->
+            append("<tr><td>").append(entry.name.escapeHtml()).append("</td>")
+            append("<td class=\"n\">").append(entry.bytes.toString()).append("</td>")
+            append("<td class=\"n\">").append(String.format(Locale.ROOT, "%.1f", entry.bytes * 100.0 / totalBytes)).append("</td>")
+            append("<td class=\"n\">").append(entry.nanos.toMillis().toString()).append("</td>")
+            append("<td class=\"n\">").append(entry.count.toString()).appendLine("</td></tr>")
+        }
+        appendLine("</table>")
+    }
+
+    private
+    fun headingFor(category: String) = when (category) {
+        "types" -> "By type"
+        "taskTypes" -> "By task type"
+        else -> "By project"
+    }
+
+    private
+    fun Long.toMillis() = TimeUnit.NANOSECONDS.toMillis(this)
+
+    private
+    fun String.escapeHtml() =
+        replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+
+    private
+    companion object {
+        const val TOP_ENTRIES = 25
+    }
+}
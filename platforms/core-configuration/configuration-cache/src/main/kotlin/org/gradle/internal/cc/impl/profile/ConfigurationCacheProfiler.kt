@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.profile
+
+import org.gradle.api.internal.GeneratedSubclasses
+import org.gradle.api.internal.TaskInternal
+import org.gradle.api.logging.Logging
+import org.gradle.internal.cc.impl.ConfigurationCacheKey
+import org.gradle.internal.cc.impl.initialization.ConfigurationCacheStartParameter
+import org.gradle.internal.logging.ConsoleRenderer
+import org.gradle.internal.serialize.graph.Tracer
+import org.gradle.internal.service.scopes.Scope
+import org.gradle.internal.service.scopes.ServiceScope
+import org.gradle.problems.buildtree.ProblemReporter
+import java.io.File
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+
+/**
+ * Accounts for the bytes and the time spent storing and loading the configuration cache state,
+ * per serialized type, per task type and per project.
+ *
+ * Enabled via [ConfigurationCacheStartParameter.isProfiling], the collected profile is written
+ * as an HTML and a JSON report next to the configuration cache report.
+ */
+@ServiceScope(Scope.BuildTree::class)
+internal
+class ConfigurationCacheProfiler(
+    private val startParameter: ConfigurationCacheStartParameter,
+    private val cacheKey: ConfigurationCacheKey
+) : ProblemReporter {
+
+    enum class Operation(val displayName: String) {
+        Store("store"),
+        Load("load")
+    }
+
+    private
+    val profiles = ConcurrentHashMap<Operation, Profile>()
+
+    /**
+     * Returns a tracer for a single write or read context, or `null` when profiling is disabled.
+     *
+     * @param position the current position in the uncompressed, unencrypted stream of the context
+     */
+    fun tracerFor(operation: Operation, position: () -> Long): Tracer? =
+        if (startParameter.isProfiling) ProfilingTracer(profiles.computeIfAbsent(operation) { Profile() }, position)
+        else null
+
+    override fun getId(): String = "configuration-cache-profile"
+
+    override fun report(reportDir: File, validationFailures: ProblemReporter.ProblemConsumer) {
+        if (profiles.isEmpty()) {
+            return
+        }
+        val outputDirectory = reportDir.resolve("reports/configuration-cache/$cacheKey/profile")
+        val report = ConfigurationCacheProfileReport(
+            profiles.entries
+                .sortedBy { it.key }
+                .map { (operation, profile) -> profile.summaryFor(operation) }
+        )
+        val htmlReportFile = report.writeTo(outputDirectory)
+        logger.lifecycle("Configuration cache profile report written to {}", ConsoleRenderer().asClickableFileUrl(htmlReportFile))
+    }
+
+    internal
+    class Stats {
+        val bytes = LongAdder()
+        val nanos = LongAdder()
+        val count = LongAdder()
+
+        fun add(bytes: Long, nanos: Long) {
+            this.bytes.add(bytes)
+            this.nanos.add(nanos)
+            this.count.increment()
+        }
+    }
+
+    internal
+    class Profile {
+        val byType = ConcurrentHashMap<String, Stats>()
+        val byTaskType = ConcurrentHashMap<String, Stats>()
+        val byProject = ConcurrentHashMap<String, Stats>()
+
+        fun summaryFor(operation: Operation) =
+            ConfigurationCacheProfileReport.OperationSummary(
+                operation.displayName,
+                byType.toSortedEntries(),
+                byTaskType.toSortedEntries(),
+                byProject.toSortedEntries()
+            )
+
+        private
+        fun Map<String, Stats>.toSortedEntries() =
+            map { (name, stats) ->
+                ConfigurationCacheProfileReport.Entry(name, stats.bytes.sum(), stats.nanos.sum(), stats.count.sum())
+            }.sortedWith(compareByDescending(ConfigurationCacheProfileReport.Entry::bytes).thenByDescending { it.nanos })
+    }
+
+    /**
+     * Attributes to each value frame the bytes and time not already attributed to its nested value frames,
+     * so that containers are not charged for their content.
+     * Tasks are charged for their whole state, on load as well as on store.
+     *
+     * Only value frames, named after the type of the value being written or read, are reported by type.
+     * Field and section frames are only opened on store, so they are not comparable to the decoding frames
+     * recorded on load, and their own bytes are charged to the enclosing value frame instead.
+     */
+    internal
+    class ProfilingTracer(
+        private val profile: Profile,
+        private val position: () -> Long
+    ) : Tracer {
+
+        private
+        class Frame(val startPosition: Long, val startNanos: Long) {
+            var nestedBytes = 0L
+            var nestedNanos = 0L
+        }
+
+        private
+        val frames = ArrayDeque<Frame>()
+
+        override fun open(frame: String, instance: Any?) {
+            frames.addLast(Frame(position(), System.nanoTime()))
+        }
+
+        override fun close(frame: String, instance: Any?) {
+            val closed = frames.removeLast()
+            val bytes = position() - closed.startPosition
+            val nanos = System.nanoTime() - closed.startNanos
+            val task = instance as? TaskInternal
+            val isValue = isValueFrame(frame, instance)
+            frames.lastOrNull()?.let { parent ->
+                if (task != null || isValue) {
+                    parent.nestedBytes += bytes
+                    parent.nestedNanos += nanos
+                } else {
+                    parent.nestedBytes += closed.nestedBytes
+                    parent.nestedNanos += closed.nestedNanos
+                }
+            }
+            if (task != null) {
+                val taskType = GeneratedSubclasses.unpackType(task).name
+                val projectPath = task.taskIdentity.identityPath.parent?.path ?: ":"
+                profile.byTaskType.statsFor(taskType).add(bytes, nanos)
+                profile.byProject.statsFor(projectPath).add(bytes, nanos)
+            } else if (isValue) {
+                profile.byType.statsFor(frame).add(bytes - closed.nestedBytes, nanos - closed.nestedNanos)
+            }
+        }
+
+        /**
+         * Value frames are opened by the bindings on store and by [org.gradle.internal.serialize.graph.withDecodingFrame] on load,
+         * both named after the type of their value.
+         */
+        private
+        fun isValueFrame(frame: String, instance: Any?) =
+            instance != null && frame == instance.javaClass.typeName
+
+        private
+        fun ConcurrentHashMap<String, Stats>.statsFor(name: String) =
+            computeIfAbsent(name) { Stats() }
+    }
+
+    private
+    companion object {
+        val logger = Logging.getLogger(ConfigurationCacheProfiler::class.java)
+    }
+}
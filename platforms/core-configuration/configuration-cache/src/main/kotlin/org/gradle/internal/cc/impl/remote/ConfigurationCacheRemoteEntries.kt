@@ -0,0 +1,178 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.remote
+
+import org.gradle.internal.cc.base.logger
+import org.gradle.internal.cc.impl.ConfigurationCacheRepository
+import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.internal.concurrent.Stoppable
+import org.gradle.internal.encryption.EncryptionService
+import org.gradle.internal.service.scopes.Scope
+import org.gradle.internal.service.scopes.ServiceScope
+import java.io.DataInputStream
+import java.io.File
+import java.io.IOException
+import java.io.InputStream
+import java.security.MessageDigest
+import javax.crypto.Mac
+
+
+/**
+ * Transfers configuration cache entries between the local [ConfigurationCacheRepository] and a [ConfigurationCacheRemoteStorage].
+ *
+ * A remote entry is the archive of the local entry, prefixed with a MAC of the cache key and the archive,
+ * keyed from the configuration cache encryption key. Downloaded entries are only imported, and hence only
+ * ever deserialized, once the MAC is verified, so only machines sharing the encryption key can provide entries.
+ * For the same reason, remote entries are disabled when encryption is disabled.
+ *
+ * Failures to transfer an entry never fail the build, the entry is simply not shared.
+ */
+@ServiceScope(Scope.BuildTree::class)
+internal
+class ConfigurationCacheRemoteEntries(
+    private val remoteStorage: Lazy<ConfigurationCacheRemoteStorage?>,
+    private val isPush: Boolean,
+    private val cacheRepository: ConfigurationCacheRepository,
+    private val encryptionService: EncryptionService,
+    private val executorFactory: ExecutorFactory
+) : Stoppable {
+
+    private
+    val storage: ConfigurationCacheRemoteStorage? by lazy {
+        remoteStorage.value?.takeIf { storage ->
+            encryptionService.isEncrypting.also { isEncrypting ->
+                if (!isEncrypting) {
+                    logger.warn("Not using {} because configuration cache encryption is disabled.", storage.displayName)
+                }
+            }
+        }
+    }
+
+    private
+    val storeExecutor = lazy {
+        executorFactory.create("Configuration cache remote store")
+    }
+
+    /**
+     * Downloads the remote entry for [cacheKey] as the local entry [entryId].
+     *
+     * @return `true` if an authentic entry was found and imported, `false` otherwise.
+     */
+    fun load(cacheKey: String, entryId: String): Boolean {
+        val storage = storage ?: return false
+        return withRemoteStorage(storage, "load") {
+            cacheRepository.withTemporaryFile { download ->
+                val found = storage.load(cacheKey) { input ->
+                    download.outputStream().use { input.copyTo(it) }
+                }
+                if (found) {
+                    importAuthenticated(cacheKey, entryId, download)
+                }
+                found
+            }
+        } ?: false
+    }
+
+    /**
+     * Uploads the local entry [entryId] as the remote entry for [cacheKey] in the background, when pushing is enabled.
+     *
+     * Pending uploads are completed when this service is stopped.
+     */
+    fun storeLater(cacheKey: String, entryId: String) {
+        if (!isPush) {
+            return
+        }
+        val storage = storage ?: return
+        storeExecutor.value.execute {
+            withRemoteStorage(storage, "store") {
+                store(storage, cacheKey, entryId)
+            }
+        }
+    }
+
+    override fun stop() {
+        if (storeExecutor.isInitialized()) {
+            storeExecutor.value.stop()
+        }
+        if (remoteStorage.isInitialized()) {
+            remoteStorage.value?.close()
+        }
+    }
+
+    private
+    fun store(storage: ConfigurationCacheRemoteStorage, cacheKey: String, entryId: String) {
+        cacheRepository.withTemporaryFile { archive ->
+            archive.outputStream().buffered().use { output ->
+                cacheRepository.exportEntry(entryId, output)
+            }
+            val mac = archive.inputStream().buffered().use { input ->
+                macFor(cacheKey).digestOf(input)
+            }
+            storage.store(cacheKey) { output ->
+                output.write(mac)
+                archive.inputStream().use { it.copyTo(output) }
+            }
+        }
+    }
+
+    private
+    fun importAuthenticated(cacheKey: String, entryId: String, download: File) {
+        val mac = macFor(cacheKey)
+        download.inputStream().buffered().use { input ->
+            val expected = input.readPrefix(mac.macLength)
+            if (!MessageDigest.isEqual(expected, mac.digestOf(input))) {
+                throw IOException("Entry for key '$cacheKey' could not be authenticated.")
+            }
+        }
+        download.inputStream().buffered().use { input ->
+            input.readPrefix(mac.macLength)
+            cacheRepository.importEntry(entryId, input)
+        }
+    }
+
+    private
+    fun macFor(cacheKey: String): Mac =
+        encryptionService.messageAuthenticationCode()!!.apply {
+            update(cacheKey.toByteArray(Charsets.UTF_8))
+        }
+
+    private
+    fun Mac.digestOf(input: InputStream): ByteArray {
+        val buffer = ByteArray(DEFAULT_BUFFER_SIZE)
+        while (true) {
+            val read = input.read(buffer)
+            if (read < 0) {
+                return doFinal()
+            }
+            update(buffer, 0, read)
+        }
+    }
+
+    private
+    fun InputStream.readPrefix(length: Int): ByteArray =
+        ByteArray(length).also { DataInputStream(this).readFully(it) }
+
+    private
+    fun <T> withRemoteStorage(storage: ConfigurationCacheRemoteStorage, operation: String, action: () -> T): T? =
+        try {
+            action()
+        } catch (e: Exception) {
+            logger.warn("Could not {} configuration cache entry using {}: {}", operation, storage.displayName, e.message)
+            logger.debug("Remote configuration cache failure", e)
+            null
+        }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.remote
+
+import java.io.Closeable
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+
+
+/**
+ * Storage for configuration cache entries shared between machines.
+ *
+ * Similar to the build cache service SPI, entries are opaque blobs addressed by the
+ * [configuration cache key][org.gradle.internal.cc.impl.ConfigurationCacheKey]
+ * which is made of machine independent information only.
+ * Whether an entry obtained from remote storage can be reused is still decided by
+ * the configuration cache fingerprint.
+ */
+internal
+interface ConfigurationCacheRemoteStorage : Closeable {
+
+    val displayName: String
+
+    /**
+     * Passes the content of the entry stored for [key] to [reader].
+     *
+     * @return `true` if an entry was found, `false` otherwise.
+     */
+    @Throws(IOException::class)
+    fun load(key: String, reader: (InputStream) -> Unit): Boolean
+
+    /**
+     * Stores the content written by [writer] as the entry for [key], replacing any existing entry.
+     */
+    @Throws(IOException::class)
+    fun store(key: String, writer: (OutputStream) -> Unit)
+}
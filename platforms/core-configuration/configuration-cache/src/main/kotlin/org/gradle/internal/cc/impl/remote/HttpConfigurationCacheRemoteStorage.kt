@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.remote
+
+import org.apache.http.HttpStatus
+import org.apache.http.client.methods.HttpGet
+import org.apache.http.client.methods.HttpPut
+import org.apache.http.entity.AbstractHttpEntity
+import org.gradle.api.InvalidUserDataException
+import org.gradle.api.credentials.PasswordCredentials
+import org.gradle.internal.authentication.DefaultBasicAuthentication
+import org.gradle.internal.resource.transport.http.DefaultHttpSettings
+import org.gradle.internal.resource.transport.http.HttpClientHelper
+import org.gradle.internal.resource.transport.http.SslContextFactory
+import org.gradle.internal.verifier.HttpRedirectVerifierFactory
+import org.gradle.util.internal.GUtil
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.net.URI
+
+
+/**
+ * Stores configuration cache entries on an HTTP server, following the same protocol as the HTTP build cache:
+ * an entry is retrieved with `GET <url>/<key>` and stored with `PUT <url>/<key>`.
+ *
+ * Credentials can be provided as the user info part of the URL, in which case the URL must be secure.
+ */
+internal
+class HttpConfigurationCacheRemoteStorage(
+    url: URI,
+    httpClientHelperFactory: HttpClientHelper.Factory,
+    sslContextFactory: SslContextFactory
+) : ConfigurationCacheRemoteStorage {
+
+    private
+    val baseUrl: URI = url.withoutUserInfo().withTrailingSlash()
+
+    private
+    val credentials: PasswordCredentials? = url.userInfo?.let(::credentialsFrom)
+
+    init {
+        if (credentials != null && !GUtil.isSecureUrl(baseUrl)) {
+            throw InvalidUserDataException("Credentials cannot be sent to the remote configuration cache over an insecure protocol, use HTTPS instead: $baseUrl")
+        }
+    }
+
+    private
+    val httpClientHelper: HttpClientHelper = httpClientHelperFactory.create(
+        DefaultHttpSettings.builder()
+            .withAuthenticationSettings(
+                credentials?.let {
+                    listOf(
+                        DefaultBasicAuthentication("basic").apply {
+                            setCredentials(it)
+                            addHost(baseUrl.host, baseUrl.port)
+                        }
+                    )
+                } ?: emptyList()
+            )
+            .maxRedirects(MAX_REDIRECTS)
+            .withRedirectVerifier(
+                HttpRedirectVerifierFactory.create(
+                    baseUrl,
+                    credentials == null,
+                    { throw InvalidUserDataException("Credentials cannot be sent to the remote configuration cache over an insecure protocol: $baseUrl") },
+                    { redirect -> throw IllegalStateException("Redirect of the remote configuration cache to insecure location '$redirect' is not allowed.") }
+                )
+            )
+            .withSslContextFactory(sslContextFactory)
+            .build()
+    )
+
+    override val displayName: String
+        get() = "HTTP configuration cache ($baseUrl)"
+
+    override fun load(key: String, reader: (InputStream) -> Unit): Boolean =
+        httpClientHelper.performHttpRequest(HttpGet(baseUrl.resolve(key))).use { response ->
+            when (val status = response.statusLine.statusCode) {
+                HttpStatus.SC_OK -> {
+                    response.content.use(reader)
+                    true
+                }
+
+                HttpStatus.SC_NOT_FOUND -> false
+                else -> throw unexpectedResponse("load", key, status)
+            }
+        }
+
+    override fun store(key: String, writer: (OutputStream) -> Unit) {
+        val request = HttpPut(baseUrl.resolve(key)).apply {
+            entity = object : AbstractHttpEntity() {
+                init {
+                    setContentType(CONTENT_TYPE)
+                    isChunked = true
+                }
+
+                override fun isRepeatable() = false
+
+                override fun getContentLength() = -1L
+
+                override fun getContent(): InputStream = throw UnsupportedOperationException()
+
+                override fun writeTo(outstream: OutputStream) = writer(outstream)
+
+                override fun isStreaming() = true
+            }
+        }
+        httpClientHelper.performHttpRequest(request).use { response ->
+            val status = response.statusLine.statusCode
+            if (status !in 200..299) {
+                throw unexpectedResponse("store", key, status)
+            }
+        }
+    }
+
+    override fun close() {
+        httpClientHelper.close()
+    }
+
+    private
+    fun unexpectedResponse(operation: String, key: String, status: Int) =
+        IOException("Unable to $operation entry '$key' from $displayName, response status $status.")
+
+    private
+    fun credentialsFrom(userInfo: String): PasswordCredentials =
+        userInfo.split(':', limit = 2).let { parts ->
+            UserInfoCredentials(parts[0], parts.getOrNull(1))
+        }
+
+    private
+    fun URI.withoutUserInfo(): URI =
+        URI(scheme, null, host, port, path, query, fragment)
+
+    private
+    fun URI.withTrailingSlash(): URI =
+        if (path.endsWith("/")) this
+        else URI(scheme, userInfo, host, port, "$path/", query, fragment)
+
+    private
+    class UserInfoCredentials(
+        private var user: String?,
+        private var secret: String?
+    ) : PasswordCredentials {
+        override fun getUsername(): String? = user
+
+        override fun setUsername(userName: String?) {
+            user = userName
+        }
+
+        override fun getPassword(): String? = secret
+
+        override fun setPassword(password: String?) {
+            secret = password
+        }
+    }
+
+    private
+    companion object {
+        const val MAX_REDIRECTS = 10
+        const val CONTENT_TYPE = "application/vnd.gradle.configuration-cache-entry"
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Assert.assertThrows
+import org.junit.Rule
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+
+class ConfigurationCacheEntryArchiveTest {
+
+    @JvmField
+    @Rule
+    val testDirectoryProvider = TestNameTestDirectoryProvider(javaClass)
+
+    @Test
+    fun `can round trip the files of an entry`() {
+        val entryDir = testDirectoryProvider.createDir("entry")
+        entryDir.resolve("entry.bin").writeText("entry")
+        entryDir.resolve("work.bin").writeBytes(ByteArray(100_000) { it.toByte() })
+        entryDir.resolve("_foo.work.bin").writeText("")
+
+        val archive = ByteArrayOutputStream().also { output ->
+            ConfigurationCacheEntryArchive.write(entryDir, output)
+        }.toByteArray()
+
+        val importedDir = testDirectoryProvider.createDir("imported")
+        val createdFiles = mutableListOf<String>()
+        ConfigurationCacheEntryArchive.read(ByteArrayInputStream(archive), importedDir) { createdFiles.add(it.name) }
+
+        assertThat(createdFiles, equalTo(listOf("_foo.work.bin", "entry.bin", "work.bin")))
+        entryDir.listFiles()!!.forEach { file ->
+            assertThat(importedDir.resolve(file.name).readBytes().contentEquals(file.readBytes()), equalTo(true))
+        }
+    }
+
+    @Test
+    fun `rejects archive entries outside of the entry directory`() {
+        listOf("../escaped.bin", "..\\escaped.bin", "nested/escaped.bin", "/escaped.bin", "..", ".").forEach { name ->
+            val entryDir = testDirectoryProvider.createDir("entry-${name.hashCode()}")
+
+            assertThrows(IllegalArgumentException::class.java) {
+                ConfigurationCacheEntryArchive.read(ByteArrayInputStream(archiveOf(name)), entryDir) {}
+            }
+            assertThat(entryDir.listFiles()!!.toList(), equalTo(emptyList<File>()))
+        }
+        assertThat(testDirectoryProvider.testDirectory.resolve("escaped.bin").exists(), equalTo(false))
+    }
+
+    @Test
+    fun `rejects directories in archive`() {
+        val entryDir = testDirectoryProvider.createDir("entry")
+
+        assertThrows(IllegalArgumentException::class.java) {
+            ConfigurationCacheEntryArchive.read(ByteArrayInputStream(archiveOf("nested/")), entryDir) {}
+        }
+    }
+
+    private
+    fun archiveOf(entryName: String): ByteArray =
+        ByteArrayOutputStream().also { output ->
+            ZipOutputStream(output).use { zip ->
+                zip.putNextEntry(ZipEntry(entryName))
+                if (!entryName.endsWith("/")) {
+                    zip.write("escaped".toByteArray())
+                }
+                zip.closeEntry()
+            }
+        }.toByteArray()
+}
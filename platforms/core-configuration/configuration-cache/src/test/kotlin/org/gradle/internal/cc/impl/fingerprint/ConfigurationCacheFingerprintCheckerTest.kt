@@ -52,6 +52,9 @@ import org.junit.Test
 import java.io.File
 import java.io.InputStream
 import java.io.OutputStream
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
 
 
 class ConfigurationCacheFingerprintCheckerTest {
@@ -236,6 +239,41 @@ class ConfigurationCacheFingerprintCheckerTest {
         )
     }
 
+    @Test
+    fun `first changed build input file is reported when checking in parallel`() {
+        val inputFiles = (1..100).map { File("input$it.txt") }
+        val originalFileHash = TestHashCodes.hashCodeFrom(1)
+        val changedFiles = setOf(inputFiles[42], inputFiles[87])
+        val checkedFiles = AtomicInteger()
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            assertThat(
+                checkFingerprintGiven(
+                    mock {
+                        on { fileSystemCheckExecutor } doReturn Executor { action ->
+                            executor.execute {
+                                checkedFiles.incrementAndGet()
+                                action.run()
+                            }
+                        }
+                        on { hashCodeAndTypeOf(any()) }.then { invocation ->
+                            val file = invocation.getArgument<File>(0)
+                            (if (file in changedFiles) TestHashCodes.hashCodeFrom(2) else originalFileHash) to FileType.RegularFile
+                        }
+                        on { displayNameOf(any()) }.then { invocation ->
+                            invocation.getArgument<File>(0).name
+                        }
+                    },
+                    *inputFiles.map { ConfigurationCacheFingerprint.InputFile(it, originalFileHash) }.toTypedArray()
+                ),
+                equalTo("file 'input43.txt' has changed")
+            )
+            assertThat(checkedFiles.get() > 0, equalTo(true))
+        } finally {
+            executor.shutdown()
+        }
+    }
+
     @Test
     fun `invalidation reason includes ValueSource description`() {
 
@@ -284,11 +322,11 @@ class ConfigurationCacheFingerprintCheckerTest {
     private
     fun checkFingerprintGiven(
         host: ConfigurationCacheFingerprintChecker.Host,
-        fingerprint: ConfigurationCacheFingerprint
+        vararg fingerprints: ConfigurationCacheFingerprint
     ): String? {
 
         val readContext = recordWritingOf {
-            write(fingerprint)
+            fingerprints.forEach { write(it) }
             write(null)
         }
 
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.io
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+
+
+class CompressedStreamsTest {
+
+    @Test
+    fun `can read back compressed data`() {
+        val data = ByteArray(256 * 1024) { (it % 31).toByte() }
+        val compressed = ByteArrayOutputStream()
+        var storeStatistics: CompressionStatistics? = null
+        var loadStatistics: CompressionStatistics? = null
+
+        CompressingOutputStream(compressed) { storeStatistics = it }.use { stream ->
+            stream.write(data, 0, 1000)
+            stream.write(data[1000].toInt())
+            stream.write(data, 1001, data.size - 1001)
+        }
+        val loaded = DecompressingInputStream(ByteArrayInputStream(compressed.toByteArray())) { loadStatistics = it }.use { stream ->
+            stream.readBytes()
+        }
+
+        assertArrayEquals(data, loaded)
+        assertTrue(compressed.size() < data.size)
+        assertEquals(CompressionStatistics(data.size.toLong(), compressed.size().toLong(), storeStatistics!!.codecTimeMillis), storeStatistics)
+        assertEquals(data.size.toLong(), loadStatistics!!.uncompressedBytes)
+        assertEquals(compressed.size().toLong(), loadStatistics!!.compressedBytes)
+    }
+
+    @Test
+    fun `reports statistics once when closed repeatedly`() {
+        var reported = 0
+        val stream = CompressingOutputStream(ByteArrayOutputStream()) { reported++ }
+
+        stream.close()
+        stream.close()
+
+        assertEquals(1, reported)
+    }
+}
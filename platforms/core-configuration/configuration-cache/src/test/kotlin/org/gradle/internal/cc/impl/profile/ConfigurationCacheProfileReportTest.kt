@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.profile
+
+import groovy.json.JsonSlurper
+import org.gradle.internal.cc.impl.profile.ConfigurationCacheProfileReport.Entry
+import org.gradle.internal.cc.impl.profile.ConfigurationCacheProfileReport.OperationSummary
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.hamcrest.CoreMatchers.containsString
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Rule
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+
+class ConfigurationCacheProfileReportTest {
+
+    @JvmField
+    @Rule
+    val testDirectoryProvider = TestNameTestDirectoryProvider(javaClass)
+
+    @Test
+    fun `writes all entries of each operation as JSON`() {
+        val report = ConfigurationCacheProfileReport(
+            listOf(
+                OperationSummary(
+                    "store",
+                    byType = listOf(Entry("java.lang.String", 100, TimeUnit.MILLISECONDS.toNanos(3), 10)),
+                    byTaskType = listOf(Entry("org.example.MyTask", 200, TimeUnit.MILLISECONDS.toNanos(5), 2)),
+                    byProject = listOf(Entry(":", 150, 0, 1), Entry(":sub", 50, 0, 1))
+                ),
+                OperationSummary("load", emptyList(), emptyList(), emptyList())
+            )
+        )
+
+        val htmlFile = report.writeTo(testDirectoryProvider.testDirectory)
+
+        assertThat(
+            JsonSlurper().parse(testDirectoryProvider.testDirectory.resolve("configuration-cache-profile.json")),
+            equalTo(
+                mapOf(
+                    "operations" to listOf(
+                        mapOf(
+                            "operation" to "store",
+                            "types" to listOf(mapOf("name" to "java.lang.String", "bytes" to 100, "timeMillis" to 3, "count" to 10)),
+                            "taskTypes" to listOf(mapOf("name" to "org.example.MyTask", "bytes" to 200, "timeMillis" to 5, "count" to 2)),
+                            "projects" to listOf(
+                                mapOf("name" to ":", "bytes" to 150, "timeMillis" to 0, "count" to 1),
+                                mapOf("name" to ":sub", "bytes" to 50, "timeMillis" to 0, "count" to 1)
+                            )
+                        ),
+                        mapOf(
+                            "operation" to "load",
+                            "types" to emptyList<Any>(),
+                            "taskTypes" to emptyList<Any>(),
+                            "projects" to emptyList<Any>()
+                        )
+                    )
+                )
+            )
+        )
+        assertThat(htmlFile.name, equalTo("configuration-cache-profile.html"))
+        assertThat(htmlFile.readText(), containsString("org.example.MyTask"))
+    }
+
+    @Test
+    fun `escapes names in HTML report`() {
+        val report = ConfigurationCacheProfileReport(
+            listOf(OperationSummary("store", listOf(Entry("List<String>", 1, 0, 1)), emptyList(), emptyList()))
+        )
+
+        val htmlFile = report.writeTo(testDirectoryProvider.testDirectory)
+
+        assertThat(htmlFile.readText(), containsString("List&lt;String&gt;"))
+    }
+}
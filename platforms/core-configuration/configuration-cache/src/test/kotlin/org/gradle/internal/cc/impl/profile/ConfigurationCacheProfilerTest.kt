@@ -0,0 +1,201 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.profile
+
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import org.gradle.api.internal.GradleInternal
+import org.gradle.api.internal.TaskInternal
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.taskfactory.TestTaskIdentities
+import org.gradle.internal.cc.impl.profile.ConfigurationCacheProfiler.Operation
+import org.gradle.internal.serialize.graph.DECODING_FRAME
+import org.gradle.internal.serialize.graph.Tracer
+import org.gradle.util.Path
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+
+class ConfigurationCacheProfilerTest {
+
+    private
+    val profile = ConfigurationCacheProfiler.Profile()
+
+    private
+    var position = 0L
+
+    private
+    val tracer = ConfigurationCacheProfiler.ProfilingTracer(profile) { position }
+
+    @Test
+    fun `types are charged for their own bytes only`() {
+        value(Outer()) {
+            position += 10
+            value(Inner()) {
+                position += 5
+            }
+            value(Inner()) {
+                position += 3
+            }
+            position += 1
+        }
+
+        val summary = profile.summaryFor(Operation.Store)
+
+        assertThat(summary.operation, equalTo("store"))
+        assertThat(
+            summary.byType.map { Triple(it.name, it.bytes, it.count) },
+            equalTo(listOf(Triple(Outer::class.java.typeName, 11L, 1L), Triple(Inner::class.java.typeName, 8L, 2L)))
+        )
+        assertThat(summary.byTaskType, equalTo(emptyList()))
+        assertThat(summary.byProject, equalTo(emptyList()))
+    }
+
+    @Test
+    fun `field and section frames are charged to the enclosing type`() {
+        frame("section") {
+            value(Outer()) {
+                frame("field") {
+                    position += 4
+                    value(Inner()) {
+                        position += 2
+                    }
+                }
+                position += 1
+            }
+        }
+
+        val summary = profile.summaryFor(Operation.Store)
+
+        assertThat(
+            summary.byType.map { Triple(it.name, it.bytes, it.count) },
+            equalTo(listOf(Triple(Outer::class.java.typeName, 5L, 1L), Triple(Inner::class.java.typeName, 2L, 1L)))
+        )
+    }
+
+    @Test
+    fun `decoding frames are charged to the type of the decoded value`() {
+        decoding(Outer()) {
+            position += 3
+            decoding(null) {
+                position += 1
+            }
+        }
+
+        val summary = profile.summaryFor(Operation.Load)
+
+        assertThat(
+            summary.byType.map { Triple(it.name, it.bytes, it.count) },
+            equalTo(listOf(Triple(Outer::class.java.typeName, 4L, 1L)))
+        )
+    }
+
+    @Test
+    fun `tasks are charged for their whole state`() {
+        val task = taskIn(":sub", "compile")
+        val otherTask = taskIn(":", "jar")
+
+        frame("task", task) {
+            position += 10
+            value(Inner()) {
+                position += 20
+            }
+        }
+        frame("task", otherTask) {
+            position += 5
+        }
+
+        val summary = profile.summaryFor(Operation.Load)
+
+        assertThat(summary.operation, equalTo("load"))
+        assertThat(
+            summary.byProject.map { Triple(it.name, it.bytes, it.count) },
+            equalTo(listOf(Triple(":sub", 30L, 1L), Triple(":", 5L, 1L)))
+        )
+        assertThat(summary.byTaskType.map { it.bytes }, equalTo(listOf(30L, 5L)))
+        assertThat(
+            summary.byType.map { Triple(it.name, it.bytes, it.count) },
+            equalTo(listOf(Triple(Inner::class.java.typeName, 20L, 1L)))
+        )
+    }
+
+    @Test
+    fun `composite tracer closes frames in reverse order`() {
+        val events = mutableListOf<String>()
+        val composite = CompositeTracer(recordingTracer("first", events), recordingTracer("second", events))
+
+        composite.open("frame", null)
+        composite.close("frame", null)
+
+        assertThat(
+            events,
+            equalTo(listOf("first open frame", "second open frame", "second close frame", "first close frame"))
+        )
+    }
+
+    private
+    fun frame(name: String, instance: Any? = null, action: () -> Unit) {
+        tracer.open(name, instance)
+        action()
+        tracer.close(name, instance)
+    }
+
+    private
+    fun value(instance: Any, action: () -> Unit) =
+        frame(instance.javaClass.typeName, instance, action)
+
+    private
+    fun decoding(instance: Any?, action: () -> Unit) {
+        tracer.open(DECODING_FRAME, null)
+        action()
+        tracer.close(instance?.javaClass?.typeName ?: DECODING_FRAME, instance)
+    }
+
+    private
+    class Outer
+
+    private
+    class Inner
+
+    private
+    fun recordingTracer(name: String, events: MutableList<String>) = object : Tracer {
+        override fun open(frame: String, instance: Any?) {
+            events.add("$name open $frame")
+        }
+
+        override fun close(frame: String, instance: Any?) {
+            events.add("$name close $frame")
+        }
+    }
+
+    private
+    fun taskIn(projectPath: String, taskName: String): TaskInternal {
+        val gradle = mock<GradleInternal> {
+            on { identityPath } doReturn Path.ROOT
+        }
+        val project = mock<ProjectInternal> {
+            on { identityPath(taskName) } doReturn Path.path(projectPath).child(taskName)
+            on { projectPath(taskName) } doReturn Path.path(projectPath).child(taskName)
+            on { this.gradle } doReturn gradle
+        }
+        val identity = TestTaskIdentities.create(taskName, TaskInternal::class.java, project)
+        return mock {
+            on { taskIdentity } doReturn identity
+        }
+    }
+}
@@ -38,6 +38,7 @@ import org.gradle.internal.serialize.graph.Codec
 import org.gradle.internal.serialize.graph.DefaultReadContext
 import org.gradle.internal.serialize.graph.DefaultWriteContext
 import org.gradle.internal.serialize.graph.MutableIsolateContext
+import org.gradle.internal.serialize.graph.Tracer
 import org.gradle.internal.serialize.graph.runReadOperation
 import org.gradle.internal.serialize.graph.runWriteOperation
 import org.gradle.internal.serialize.graph.withIsolate
@@ -69,9 +70,14 @@ abstract class AbstractUserTypeCodecTest {
         }
 
     protected
-    fun <T : Any> configurationCacheRoundtripOf(graph: T, codec: Codec<Any?> = userTypesCodec()): T =
-        writeToByteArray(graph, codec)
-            .let { readFromByteArray(it, codec)!! }
+    fun <T : Any> configurationCacheRoundtripOf(
+        graph: T,
+        codec: Codec<Any?> = userTypesCodec(),
+        writeTracer: Tracer? = null,
+        readTracer: Tracer? = null
+    ): T =
+        writeToByteArray(graph, codec, writeTracer)
+            .let { readFromByteArray(it, codec, readTracer)!! }
             .uncheckedCast()
 
     internal
@@ -81,7 +87,7 @@ abstract class AbstractUserTypeCodecTest {
     }
 
     private
-    fun writeToByteArray(graph: Any, codec: Codec<Any?>): ByteArray {
+    fun writeToByteArray(graph: Any, codec: Codec<Any?>, tracer: Tracer?): ByteArray {
         val outputStream = ByteArrayOutputStream()
         writeTo(
             outputStream, graph, codec,
@@ -89,7 +95,8 @@ abstract class AbstractUserTypeCodecTest {
                 override fun onProblem(problem: PropertyProblem) {
                     println(problem)
                 }
-            }
+            },
+            tracer
         )
         return outputStream.toByteArray()
     }
@@ -99,9 +106,10 @@ abstract class AbstractUserTypeCodecTest {
         outputStream: OutputStream,
         graph: Any,
         codec: Codec<Any?>,
-        problemsListener: ProblemsListener = mock()
+        problemsListener: ProblemsListener = mock(),
+        tracer: Tracer? = null
     ) {
-        writeContextFor(KryoBackedEncoder(outputStream), codec, problemsListener).useToRun {
+        writeContextFor(KryoBackedEncoder(outputStream), codec, problemsListener, tracer).useToRun {
             withIsolateMock(codec) {
                 runWriteOperation {
                     write(graph)
@@ -111,12 +119,12 @@ abstract class AbstractUserTypeCodecTest {
     }
 
     private
-    fun readFromByteArray(bytes: ByteArray, codec: Codec<Any?>) =
-        readFrom(ByteArrayInputStream(bytes), codec)
+    fun readFromByteArray(bytes: ByteArray, codec: Codec<Any?>, tracer: Tracer?) =
+        readFrom(ByteArrayInputStream(bytes), codec, tracer)
 
     private
-    fun readFrom(inputStream: ByteArrayInputStream, codec: Codec<Any?>) =
-        readContextFor(inputStream, codec).run {
+    fun readFrom(inputStream: ByteArrayInputStream, codec: Codec<Any?>, tracer: Tracer?) =
+        readContextFor(inputStream, codec, tracer).run {
             withIsolateMock(codec) {
                 runReadOperation {
                     read()
@@ -131,26 +139,27 @@ abstract class AbstractUserTypeCodecTest {
         }
 
     private
-    fun writeContextFor(encoder: FlushableEncoder, codec: Codec<Any?>, problemHandler: ProblemsListener) =
+    fun writeContextFor(encoder: FlushableEncoder, codec: Codec<Any?>, problemHandler: ProblemsListener, tracer: Tracer?) =
         DefaultWriteContext(
             codec = codec,
             encoder = encoder,
             classEncoder = DefaultClassEncoder(mock()),
             beanStateWriterLookup = DefaultBeanStateWriterLookup(),
             logger = mock(),
-            tracer = null,
+            tracer = tracer,
             problemsListener = problemHandler
         )
 
     private
-    fun readContextFor(inputStream: ByteArrayInputStream, codec: Codec<Any?>) =
+    fun readContextFor(inputStream: ByteArrayInputStream, codec: Codec<Any?>, tracer: Tracer?) =
         DefaultReadContext(
             codec = codec,
             decoder = KryoBackedDecoder(inputStream),
             beanStateReaderLookup = beanStateReaderLookupForTesting(),
             logger = mock(),
             problemsListener = mock(),
-            classDecoder = DefaultClassDecoder(mock(), mock())
+            classDecoder = DefaultClassDecoder(mock(), mock()),
+            tracer = tracer
         )
 
     private
@@ -17,6 +17,8 @@
 package org.gradle.internal.cc.impl.serialization.codecs
 
 import org.gradle.internal.configuration.problems.PropertyTrace
+import org.gradle.internal.serialize.graph.DECODING_FRAME
+import org.gradle.internal.serialize.graph.Tracer
 import org.hamcrest.CoreMatchers.equalTo
 import org.hamcrest.CoreMatchers.sameInstance
 import org.hamcrest.MatcherAssert.assertThat
@@ -38,6 +40,44 @@ class UserTypesCodecTest : AbstractUserTypeCodecTest() {
         )
     }
 
+    @Test
+    fun `traces encoded and decoded values`() {
+
+        val graph = Peano.fromInt(2)
+        val writeTracer = RecordingTracer()
+        val readTracer = RecordingTracer()
+
+        val read = configurationCacheRoundtripOf(graph, writeTracer = writeTracer, readTracer = readTracer)
+
+        val peanoTypes = setOf(Peano.S::class.java.typeName, Peano.Z::class.java.typeName)
+        assertThat(
+            writeTracer.opened.filter { it in peanoTypes },
+            equalTo(listOf(Peano.S::class.java.typeName, Peano.S::class.java.typeName, Peano.Z::class.java.typeName))
+        )
+        // The type of a decoded value is only known when its frame is closed
+        assertThat(readTracer.opened.toSet(), equalTo(setOf(DECODING_FRAME)))
+        assertThat(
+            readTracer.closed.map { it.first }.filter { it in peanoTypes },
+            equalTo(listOf(Peano.Z::class.java.typeName, Peano.S::class.java.typeName, Peano.S::class.java.typeName))
+        )
+        assertThat(readTracer.closed.size, equalTo(readTracer.opened.size))
+        assertThat(readTracer.closed.last().second, sameInstance(read))
+    }
+
+    private
+    class RecordingTracer : Tracer {
+        val opened = mutableListOf<String>()
+        val closed = mutableListOf<Pair<String, Any?>>()
+
+        override fun open(frame: String, instance: Any?) {
+            opened.add(frame)
+        }
+
+        override fun close(frame: String, instance: Any?) {
+            closed.add(frame to instance)
+        }
+    }
+
     @Test
     fun `internal types codec leaves not implemented trace for unsupported types`() {
 
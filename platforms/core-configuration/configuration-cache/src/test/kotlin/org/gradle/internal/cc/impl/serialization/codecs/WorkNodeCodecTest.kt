@@ -0,0 +1,217 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.cc.impl.serialization.codecs
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import org.gradle.api.internal.GradleInternal
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectState
+import org.gradle.api.internal.tasks.TaskDependencyResolver
+import org.gradle.execution.plan.Node
+import org.gradle.execution.plan.ScheduledWork
+import org.gradle.internal.cc.impl.serialize.DefaultClassDecoder
+import org.gradle.internal.cc.impl.serialize.DefaultClassEncoder
+import org.gradle.internal.extensions.stdlib.useToRun
+import org.gradle.internal.operations.BuildOperationExecutor
+import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.serialize.beans.services.DefaultBeanStateWriterLookup
+import org.gradle.internal.serialize.codecs.core.IsolateContextSource
+import org.gradle.internal.serialize.codecs.core.WorkNodeCodec
+import org.gradle.internal.serialize.graph.CloseableReadContext
+import org.gradle.internal.serialize.graph.CloseableWriteContext
+import org.gradle.internal.serialize.graph.Codec
+import org.gradle.internal.serialize.graph.DefaultReadContext
+import org.gradle.internal.serialize.graph.DefaultWriteContext
+import org.gradle.internal.serialize.graph.ReadContext
+import org.gradle.internal.serialize.graph.WriteContext
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder
+import org.gradle.internal.service.ServiceRegistry
+import org.gradle.util.Path
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.util.function.Consumer
+
+
+class WorkNodeCodecTest {
+
+    private
+    val gradle = mock<GradleInternal> {
+        on { identityPath } doReturn Path.ROOT
+        on { services } doReturn mock<ServiceRegistry> {
+            on { get(BuildOperationExecutor::class.java) } doReturn TestBuildOperationExecutor()
+        }
+    }
+
+    private
+    val projects = listOf(":small", ":large").associateWith(::projectAt)
+
+    private
+    val contextSource = InMemoryContextSource()
+
+    private
+    val smallNode = nodeIn(":small", "small")
+
+    private
+    val largeNodes = listOf("large1", "large2", "large3").map { nodeIn(":large", it) }
+
+    // The small group is stored first
+    private
+    val work = ScheduledWork(listOf(smallNode) + largeNodes, listOf(largeNodes[2]))
+
+    init {
+        largeNodes[0].addDependencySuccessor(smallNode)
+    }
+
+    @Test
+    fun `work graph survives a round trip`() {
+        val loadedWork = roundtrip(work, parallelLoad = true)
+
+        assertThat(loadedWork.scheduledNodes.map(Node::toString), equalTo(listOf("small", "large1", "large2", "large3")))
+        assertThat(loadedWork.entryNodes.map(Node::toString), equalTo(listOf("large3")))
+        assertThat(loadedWork.scheduledNodes[1].dependencySuccessors.map(Node::toString), equalTo(listOf("small")))
+    }
+
+    @Test
+    fun `groups are loaded largest first when loading in parallel`() {
+        roundtrip(work, parallelLoad = true)
+
+        assertThat(contextSource.loadedGroups, equalTo(listOf(Path.path(":large"), Path.path(":small"))))
+    }
+
+    @Test
+    fun `groups are loaded in stored order when loading sequentially`() {
+        roundtrip(work, parallelLoad = false)
+
+        assertThat(contextSource.loadedGroups, equalTo(listOf(Path.path(":small"), Path.path(":large"))))
+    }
+
+    private
+    fun roundtrip(work: ScheduledWork, parallelLoad: Boolean): ScheduledWork {
+        val codec = WorkNodeCodec(gradle, nodeCodec, mock(), contextSource, parallelStore = false, parallelLoad = parallelLoad)
+        val outputStream = ByteArrayOutputStream()
+        writeContextOn(outputStream).useToRun {
+            codec.run { writeWork(work) }
+        }
+        return readContextOn(outputStream.toByteArray()).useToRun {
+            codec.run { readWork() }
+        }
+    }
+
+    /**
+     * Stores the state of each group of nodes in memory, like the configuration cache does in a separate file.
+     */
+    private
+    inner class InMemoryContextSource : IsolateContextSource {
+
+        private
+        val storedGroups = LinkedHashMap<Path, ByteArrayOutputStream>()
+
+        val loadedGroups = mutableListOf<Path>()
+
+        override fun writeContextFor(baseContext: WriteContext, path: Path): CloseableWriteContext =
+            writeContextOn(storedGroups.getOrPut(path, ::ByteArrayOutputStream)).also {
+                it.push(baseContext.isolate.owner, nodeCodec)
+            }
+
+        override fun readContextFor(baseContext: ReadContext, path: Path): CloseableReadContext {
+            loadedGroups.add(path)
+            return readContextOn(storedGroups.getValue(path).toByteArray()).also {
+                it.push(baseContext.isolate.owner, nodeCodec)
+            }
+        }
+
+        override fun storedSizeOf(path: Path): Long =
+            storedGroups.getValue(path).size().toLong()
+    }
+
+    /**
+     * Writes a node as the path of its project and its name.
+     */
+    private
+    val nodeCodec = object : Codec<Any?> {
+        override suspend fun WriteContext.encode(value: Any?) {
+            val node = value as TestNode
+            writeString(node.owningProject.identityPath.path)
+            writeString(node.name)
+        }
+
+        override suspend fun ReadContext.decode(): Any? =
+            nodeIn(readString(), readString())
+    }
+
+    private
+    fun writeContextOn(outputStream: ByteArrayOutputStream) =
+        DefaultWriteContext(
+            codec = nodeCodec,
+            encoder = KryoBackedEncoder(outputStream),
+            classEncoder = DefaultClassEncoder(mock()),
+            beanStateWriterLookup = DefaultBeanStateWriterLookup(),
+            logger = mock(),
+            tracer = null,
+            problemsListener = mock()
+        )
+
+    private
+    fun readContextOn(bytes: ByteArray) =
+        DefaultReadContext(
+            codec = nodeCodec,
+            decoder = KryoBackedDecoder(ByteArrayInputStream(bytes)),
+            beanStateReaderLookup = beanStateReaderLookupForTesting(),
+            logger = mock(),
+            problemsListener = mock(),
+            classDecoder = DefaultClassDecoder(mock(), mock())
+        )
+
+    private
+    fun nodeIn(projectPath: String, name: String) =
+        TestNode(name, projects.getValue(projectPath)).apply {
+            require()
+        }
+
+    private
+    fun projectAt(path: String): ProjectInternal {
+        lateinit var project: ProjectInternal
+        val state = mock<ProjectState> {
+            on { applyToMutableState(any()) } doAnswer { invocation ->
+                invocation.getArgument<Consumer<ProjectInternal>>(0).accept(project)
+            }
+        }
+        project = mock {
+            on { identityPath } doReturn Path.path(path)
+            on { owner } doReturn state
+        }
+        return project
+    }
+
+    private
+    class TestNode(val name: String, private val project: ProjectInternal) : Node() {
+        override fun getNodeFailure(): Throwable? = null
+
+        override fun resolveDependencies(dependencyResolver: TaskDependencyResolver) = Unit
+
+        override fun getOwningProject(): ProjectInternal = project
+
+        override fun toString(): String = name
+    }
+}
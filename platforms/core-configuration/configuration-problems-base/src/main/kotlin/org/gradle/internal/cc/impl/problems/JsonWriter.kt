@@ -68,6 +68,10 @@ class JsonWriter(private val writer: Writer) {
         jsonGenerator.writeNumberField(name, value)
     }
 
+    fun property(name: String, value: Long) {
+        jsonGenerator.writeNumberField(name, value)
+    }
+
     fun property(name: String, value: () -> Unit) {
         jsonGenerator.writeFieldName(name)
         value()
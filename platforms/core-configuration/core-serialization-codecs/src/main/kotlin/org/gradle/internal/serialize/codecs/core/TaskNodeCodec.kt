@@ -57,6 +57,7 @@ import org.gradle.internal.serialize.graph.readEnum
 import org.gradle.internal.serialize.graph.readNonNull
 import org.gradle.internal.serialize.graph.readPropertyValue
 import org.gradle.internal.serialize.graph.withDebugFrame
+import org.gradle.internal.serialize.graph.withDecodingFrame
 import org.gradle.internal.serialize.graph.withIsolate
 import org.gradle.internal.serialize.graph.withPropertyTrace
 import org.gradle.internal.serialize.graph.writeCollection
@@ -84,7 +85,7 @@ class TaskNodeCodec(
 
     private
     suspend fun WriteContext.writeTask(task: TaskInternal) {
-        withDebugFrame({ task.path }) {
+        withDebugFrame({ task.path }, task) {
             val taskType = GeneratedSubclasses.unpackType(task)
             val taskName = task.name
             writeClass(taskType)
@@ -116,31 +117,33 @@ class TaskNodeCodec(
     }
 
     private
-    suspend fun ReadContext.readTask(): Task {
-        val taskType = readClassOf<Task>()
-        val project = readProjectRef()
-        val taskName = readString()
-        val uniqueId = readLong()
-        val incompatibleReason = readNullableString()
-
-        val task = createTask(project, taskName, taskType, uniqueId, incompatibleReason)
-
-        withTaskOf(taskType, task, userTypesCodec) {
-            readUpToDateSpec(task)
-            readCollectionInto { task.outputs.cacheIfSpecs.uncheckedCast() }
-            readCollectionInto { task.outputs.doNotCacheIfSpecs.uncheckedCast() }
-            readReasonNotToTrackState(task)
-            beanStateReaderFor(task.javaClass).run {
-                readStateOf(task)
+    suspend fun ReadContext.readTask(): Task =
+        // Traced as a whole, like on store, so the state of the task is attributed to it
+        withDecodingFrame {
+            val taskType = readClassOf<Task>()
+            val project = readProjectRef()
+            val taskName = readString()
+            val uniqueId = readLong()
+            val incompatibleReason = readNullableString()
+
+            val task = createTask(project, taskName, taskType, uniqueId, incompatibleReason)
+
+            withTaskOf(taskType, task, userTypesCodec) {
+                readUpToDateSpec(task)
+                readCollectionInto { task.outputs.cacheIfSpecs.uncheckedCast() }
+                readCollectionInto { task.outputs.doNotCacheIfSpecs.uncheckedCast() }
+                readReasonNotToTrackState(task)
+                beanStateReaderFor(task.javaClass).run {
+                    readStateOf(task)
+                }
+                readRegisteredPropertiesOf(task)
+                readDestroyablesOf(task)
+                readLocalStateOf(task)
+                readRequiredServices(task)
             }
-            readRegisteredPropertiesOf(task)
-            readDestroyablesOf(task)
-            readLocalStateOf(task)
-            readRequiredServices(task)
-        }
 
-        return task
-    }
+            task
+        }.uncheckedCast()
 
     private
     suspend fun WriteContext.writeUpToDateSpec(task: TaskInternal) {
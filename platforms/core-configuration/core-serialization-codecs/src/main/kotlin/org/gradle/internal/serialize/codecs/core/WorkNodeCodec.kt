@@ -75,6 +75,11 @@ typealias IdForNode = (Node) -> Int
 interface IsolateContextSource {
     fun readContextFor(baseContext: ReadContext, path: Path): CloseableReadContext
     fun writeContextFor(baseContext: WriteContext, path: Path): CloseableWriteContext
+
+    /**
+     * Returns the size in bytes of the state stored for the given path, or `0` when it is not known.
+     */
+    fun storedSizeOf(path: Path): Long = 0
 }
 
 
@@ -244,6 +249,11 @@ class WorkNodeCodec(
         val groupPaths = readCollectionInto<Path, MutableList<Path>>(::ArrayList) {
             Path.path(readString())
         }
+        if (parallelLoad) {
+            // Start with the largest groups, so that a single large project is not left loading on its own at the end
+            val storedSizes = groupPaths.associateWith(contextSource::storedSizeOf)
+            groupPaths.sortByDescending(storedSizes::getValue)
+        }
 
         runBuildOperations(parallel = parallelLoad, message = "reading task graph") {
             groupPaths.map { groupPath ->
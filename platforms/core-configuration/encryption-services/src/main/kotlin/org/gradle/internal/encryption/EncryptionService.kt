@@ -22,6 +22,7 @@ import org.gradle.internal.service.scopes.ServiceScope
 import org.gradle.util.internal.EncryptionAlgorithm
 import java.io.InputStream
 import java.io.OutputStream
+import javax.crypto.Mac
 
 
 /**
@@ -42,4 +43,11 @@ interface EncryptionConfiguration {
 interface EncryptionService : EncryptionConfiguration {
     fun outputStream(output: OutputStream): OutputStream
     fun inputStream(input: InputStream): InputStream
+
+    /**
+     * Creates a MAC keyed from the encryption key, for authenticating content that is not produced locally.
+     *
+     * Returns `null` when not encrypting.
+     */
+    fun messageAuthenticationCode(): Mac?
 }
@@ -31,7 +31,9 @@ import java.io.File
 import java.io.InputStream
 import java.io.OutputStream
 import java.security.InvalidKeyException
+import javax.crypto.Mac
 import javax.crypto.SecretKey
+import javax.crypto.spec.SecretKeySpec
 
 
 internal
@@ -111,6 +113,25 @@ class DefaultEncryptionService(
         else
             input
 
+    override fun messageAuthenticationCode(): Mac? =
+        macKey?.let { key ->
+            Mac.getInstance(MAC_ALGORITHM).apply { init(key) }
+        }
+
+    /**
+     * A key derived from the encryption key, so the encryption key itself is never used for anything but encryption.
+     */
+    private
+    val macKey: SecretKey? by lazy {
+        secretKey?.let { key ->
+            val derived = Mac.getInstance(MAC_ALGORITHM).run {
+                init(SecretKeySpec(key.encoded, MAC_ALGORITHM))
+                doFinal("gradle-configuration-cache-mac".toByteArray())
+            }
+            SecretKeySpec(derived, MAC_ALGORITHM)
+        }
+    }
+
     private
     fun secretKeySource(kind: EncryptionKind): SecretKeySource =
         when (kind) {
@@ -131,3 +152,7 @@ class DefaultEncryptionService(
                 NoEncryptionKeySource()
         }
 }
+
+
+private
+const val MAC_ALGORITHM = "HmacSHA256"
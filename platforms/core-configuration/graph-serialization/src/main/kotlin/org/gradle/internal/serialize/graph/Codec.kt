@@ -82,6 +82,9 @@ fun <I, R> CloseableWriteContext.writeWith(
     }
 
 
+/**
+ * Observes the frames of a write or read operation, see [withDebugFrame] and [withDecodingFrame].
+ */
 interface Tracer {
 
     fun open(frame: String, instance: Any?)
@@ -98,6 +101,9 @@ interface ReadContext : IsolateContext, MutableIsolateContext, Decoder {
 
     fun beanStateReaderFor(beanType: Class<*>): BeanStateReader
 
+    val tracer: Tracer?
+        get() = null
+
     /**
      * When in immediate mode, [read] calls are NOT suspending.
      * Useful for bridging with non-suspending serialization protocols such as [java.io.Serializable].
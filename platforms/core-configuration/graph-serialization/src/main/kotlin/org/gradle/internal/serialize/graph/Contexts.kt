@@ -237,7 +237,9 @@ class DefaultReadContext(
     private
     val classDecoder: ClassDecoder,
 
-    specialDecoders: SpecialDecoders = SpecialDecoders()
+    specialDecoders: SpecialDecoders = SpecialDecoders(),
+
+    override val tracer: Tracer? = null
 ) : AbstractIsolateContext<ReadIsolate>(codec, problemsListener, name), CloseableReadContext, Decoder by decoder {
 
     override val sharedIdentities = ReadIdentities()
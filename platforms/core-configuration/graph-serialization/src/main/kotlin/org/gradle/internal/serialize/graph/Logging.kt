@@ -135,6 +135,32 @@ fun IsolateContext.logPropertyProblem(action: String, problem: PropertyProblem)
 }
 
 
+/**
+ * Traces the decoding of a single value.
+ *
+ * As the type of the value is only known once it has been read, the frame is opened with the [DECODING_FRAME]
+ * placeholder and closed with the name of the type of the value.
+ */
+inline fun <T : ReadContext> T.withDecodingFrame(readAction: T.() -> Any?): Any? {
+    val tracer = this.tracer
+    return if (tracer == null) {
+        readAction()
+    } else {
+        var value: Any? = null
+        try {
+            tracer.open(DECODING_FRAME, null)
+            value = readAction()
+            value
+        } finally {
+            tracer.close(value?.javaClass?.typeName ?: DECODING_FRAME, value)
+        }
+    }
+}
+
+
+const val DECODING_FRAME = "<decoding>"
+
+
 inline fun <T : WriteContext, R> T.withDebugFrame(name: () -> String, instance: Any? = null, writeAction: T.() -> R): R {
     val tracer = this.tracer
     return if (tracer == null) {
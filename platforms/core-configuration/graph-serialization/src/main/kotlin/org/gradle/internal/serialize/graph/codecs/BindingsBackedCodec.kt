@@ -26,6 +26,7 @@ import org.gradle.internal.serialize.graph.ReadContext
 import org.gradle.internal.serialize.graph.SerializerCodec
 import org.gradle.internal.serialize.graph.WriteContext
 import org.gradle.internal.serialize.graph.withDebugFrame
+import org.gradle.internal.serialize.graph.withDecodingFrame
 import java.util.concurrent.ConcurrentHashMap
 import kotlin.reflect.KClass
 
@@ -77,7 +78,11 @@ class BindingsBackedCodec(private val bindings: List<Binding>) : Codec<Any?> {
                 }
                 null
             }
-            binding?.let { it.decoding.run { decode() } }
+            binding?.let {
+                withDecodingFrame {
+                    it.decoding.run { decode() }
+                }
+            }
         }
     }
 
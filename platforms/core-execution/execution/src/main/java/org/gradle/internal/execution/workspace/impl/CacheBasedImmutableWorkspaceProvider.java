@@ -94,7 +94,8 @@ private static CleanupAction createCleanupAction(FileAccessTimeJournal fileAcces
         return new LeastRecentlyUsedCacheCleanup(
             new SingleDepthFilesFinder(treeDepthToTrackAndCleanup),
             fileAccessTimeJournal,
-            cacheConfigurations.getCreatedResources().getEntryRetentionTimestampSupplier()
+            cacheConfigurations.getCreatedResources().getEntryRetentionTimestampSupplier(),
+            LeastRecentlyUsedCacheCleanup.maxSizeInBytesFromSystemProperty("org.gradle.internal.cleanup.created.max.size")
         );
     }
 
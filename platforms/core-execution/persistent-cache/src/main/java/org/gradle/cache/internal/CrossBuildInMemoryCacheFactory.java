@@ -22,6 +22,7 @@
 import javax.annotation.concurrent.ThreadSafe;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 /**
  * A factory for {@link CrossBuildInMemoryCache} instances.
@@ -63,6 +64,21 @@ public interface CrossBuildInMemoryCacheFactory extends ClassCacheFactory {
      */
     <K, V> CrossBuildInMemoryCache<K, V> newCacheRetainingDataFromPreviousBuild(Predicate<V> retentionFilter);
 
+    /**
+     * Creates a new cache instance that retains values across build sessions up to the given total weight. Keys and values are referenced using strong references.
+     *
+     * <p>Unlike {@link #newCache()}, retained values are not discarded on memory pressure, so the weight should approximate the heap retained by a value.
+     *
+     * <p>Hit, miss, eviction and rejection counts are logged at debug level at the end of each build session.
+     *
+     * <p>Note: this should be used to create _only_ global scoped instances.
+     *
+     * @param displayName the name of the cache, used when logging its statistics.
+     * @param maxWeight the maximum total weight of the values retained across build sessions.
+     * @param weigher calculates the weight of a value. Must be cheap, as it is invoked under the cache lock.
+     */
+    <K, V> CrossBuildInMemoryCache<K, V> newBoundedCache(String displayName, long maxWeight, ToLongFunction<? super V> weigher);
+
     /**
      * {@inheritDoc}
      * <p>
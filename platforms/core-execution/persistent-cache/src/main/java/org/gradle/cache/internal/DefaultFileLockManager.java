@@ -63,11 +63,21 @@ public class DefaultFileLockManager implements FileLockManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFileLockManager.class);
     public static final int DEFAULT_LOCK_TIMEOUT = 60000;
 
+    /**
+     * When enabled, processes waiting for an exclusive lock are notified as soon as the lock is released,
+     * instead of only for locks that are released on demand. Waiting processes then do not need to wait for their next poll of the lock file.
+     * <p>
+     * This is a wake-up, not a handoff: all waiting processes are notified at the same time and compete for the lock again,
+     * in no particular order. A notification that gets lost is covered by the waiting process polling the lock file as before.
+     */
+    public static final String NOTIFY_WAITERS_ON_RELEASE_PROPERTY = "org.gradle.internal.filelock.notify-waiters-on-release";
+
     private final Set<File> lockedFiles = new CopyOnWriteArraySet<>();
     private final ProcessMetaDataProvider metaDataProvider;
     private final int lockTimeoutMs;
     private final LongSupplier generator;
     private final FileLockContentionHandler fileLockContentionHandler;
+    private final boolean notifyWaitersOnRelease;
     private final int shortTimeoutMs = 10000;
 
     public DefaultFileLockManager(ProcessMetaDataProvider metaDataProvider, FileLockContentionHandler fileLockContentionHandler) {
@@ -80,10 +90,17 @@ public DefaultFileLockManager(ProcessMetaDataProvider metaDataProvider, int lock
 
     DefaultFileLockManager(ProcessMetaDataProvider metaDataProvider, int lockTimeoutMs, FileLockContentionHandler fileLockContentionHandler,
                            LongSupplier generator) {
+        this(metaDataProvider, lockTimeoutMs, fileLockContentionHandler, generator, Boolean.getBoolean(NOTIFY_WAITERS_ON_RELEASE_PROPERTY));
+    }
+
+    @VisibleForTesting
+    DefaultFileLockManager(ProcessMetaDataProvider metaDataProvider, int lockTimeoutMs, FileLockContentionHandler fileLockContentionHandler,
+                           LongSupplier generator, boolean notifyWaitersOnRelease) {
         this.metaDataProvider = metaDataProvider;
         this.lockTimeoutMs = lockTimeoutMs;
         this.fileLockContentionHandler = fileLockContentionHandler;
         this.generator = generator;
+        this.notifyWaitersOnRelease = notifyWaitersOnRelease;
     }
 
     private static class RandomLongIdGenerator implements LongSupplier {
@@ -175,6 +192,9 @@ public DefaultFileLock(File target, LockOptions options, String displayName, Str
             try {
                 if (whenContended != null) {
                     fileLockContentionHandler.start(lockId, whenContended);
+                } else if (notifyWaitersOnRelease && options.getMode() == LockMode.Exclusive) {
+                    // Track the processes waiting for this lock, so they can be notified when it is released
+                    fileLockContentionHandler.start(lockId, null);
                 }
                 lockState = lock(options.getMode());
             } catch (Throwable t) {
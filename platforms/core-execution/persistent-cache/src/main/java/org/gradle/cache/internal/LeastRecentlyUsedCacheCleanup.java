@@ -16,37 +16,194 @@
 
 package org.gradle.cache.internal;
 
+import org.apache.commons.io.FileUtils;
 import org.gradle.cache.CleanableStore;
 import org.gradle.cache.CleanupProgressMonitor;
 import org.gradle.internal.file.FileAccessTimeJournal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
  * Deletes any cache entries not accessed within the specified number of days.
+ *
+ * Optionally, the total size of the cache entries can be limited, in which case the least recently used entries
+ * are deleted until the remaining entries fit into the size budget. Cache entries are expected to be immutable once
+ * created, so the size of each retained entry is recorded in the cache directory and only new entries are measured.
  */
 public class LeastRecentlyUsedCacheCleanup extends AbstractTimeJournalAwareCacheCleanup {
     private static final Logger LOGGER = LoggerFactory.getLogger(LeastRecentlyUsedCacheCleanup.class);
 
+    public static final long NO_SIZE_LIMIT = Long.MAX_VALUE;
+
+    /**
+     * The file in the cleaned directory that records the size of the retained cache entries.
+     */
+    public static final String ENTRY_SIZES_FILE_NAME = "gc-entry-sizes.bin";
+
+    private final FilesFinder eligibleFilesFinder;
     private final Supplier<Long> removeUnusedEntriesOlderThan;
+    private final Supplier<Long> maxSizeInBytes;
 
     public LeastRecentlyUsedCacheCleanup(FilesFinder eligibleFilesFinder, FileAccessTimeJournal journal, Supplier<Long> removeUnusedEntriesOlderThan) {
+        this(eligibleFilesFinder, journal, removeUnusedEntriesOlderThan, () -> NO_SIZE_LIMIT);
+    }
+
+    public LeastRecentlyUsedCacheCleanup(FilesFinder eligibleFilesFinder, FileAccessTimeJournal journal, Supplier<Long> removeUnusedEntriesOlderThan, Supplier<Long> maxSizeInBytes) {
         super(eligibleFilesFinder, journal);
+        this.eligibleFilesFinder = eligibleFilesFinder;
         this.removeUnusedEntriesOlderThan = removeUnusedEntriesOlderThan;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * Returns the size limit, in bytes, configured in megabytes by the given system property, or {@link #NO_SIZE_LIMIT} when the property is not set.
+     */
+    public static Supplier<Long> maxSizeInBytesFromSystemProperty(String propertyName) {
+        Long maxSizeInMegabytes = Long.getLong(propertyName);
+        if (maxSizeInMegabytes == null) {
+            return () -> NO_SIZE_LIMIT;
+        }
+        return () -> maxSizeInMegabytes * 1024 * 1024;
     }
 
     @Override
     public void clean(CleanableStore cleanableStore, CleanupProgressMonitor progressMonitor) {
-        LOGGER.info("{} removing files not accessed on or after {}.", cleanableStore.getDisplayName(), new Date(removeUnusedEntriesOlderThan.get()));
-        super.clean(cleanableStore, progressMonitor);
+        File entrySizesFile = new File(cleanableStore.getBaseDir(), ENTRY_SIZES_FILE_NAME);
+        long maxSize = maxSizeInBytes.get();
+        if (maxSize == NO_SIZE_LIMIT) {
+            // The recorded sizes are not kept up to date without a size limit
+            FileUtils.deleteQuietly(entrySizesFile);
+            LOGGER.info("{} removing files not accessed on or after {}.", cleanableStore.getDisplayName(), new Date(removeUnusedEntriesOlderThan.get()));
+            super.clean(cleanableStore, progressMonitor);
+            return;
+        }
+
+        long removeOlderThan = removeUnusedEntriesOlderThan.get();
+        LOGGER.info("{} removing files not accessed on or after {} or exceeding {} bytes in total.", cleanableStore.getDisplayName(), new Date(removeOlderThan), maxSize);
+
+        // Single pass over the cache: query each entry's access time once and split into expired and retained entries
+        Map<String, Long> recordedSizes = readEntrySizes(entrySizesFile);
+        List<File> filesToDelete = new ArrayList<>();
+        List<CacheEntry> retainedEntries = new ArrayList<>();
+        List<File> reservedFiles = new ArrayList<>(cleanableStore.getReservedCacheFiles());
+        reservedFiles.add(entrySizesFile);
+        for (File file : eligibleFilesFinder.find(cleanableStore.getBaseDir(), new NonReservedFileFilter(reservedFiles))) {
+            long lastAccessTime = journal.getLastAccessTime(file);
+            if (lastAccessTime < removeOlderThan) {
+                filesToDelete.add(file);
+            } else {
+                String path = relativePath(cleanableStore.getBaseDir(), file);
+                Long recordedSize = recordedSizes.get(path);
+                long size = recordedSize != null ? recordedSize : sizeOf(file);
+                retainedEntries.add(new CacheEntry(file, path, lastAccessTime, size));
+            }
+        }
+
+        // Evict the least recently used entries until the remaining ones fit into the budget
+        retainedEntries.sort(Comparator.comparingLong(entry -> entry.lastAccessTime));
+        long totalSize = 0;
+        for (CacheEntry entry : retainedEntries) {
+            totalSize += entry.size;
+        }
+        int evicted = 0;
+        while (totalSize > maxSize && evicted < retainedEntries.size()) {
+            CacheEntry entry = retainedEntries.get(evicted++);
+            filesToDelete.add(entry.file);
+            totalSize -= entry.size;
+        }
+
+        progressMonitor.incrementSkipped(retainedEntries.size() - evicted);
+        int filesDeleted = 0;
+        for (File file : filesToDelete) {
+            progressMonitor.incrementDeleted();
+            if (FileUtils.deleteQuietly(file)) {
+                handleDeletion(file);
+                filesDeleted += 1 + deleteEmptyParentDirectories(cleanableStore.getBaseDir(), file.getParentFile());
+            }
+        }
+        writeEntrySizes(entrySizesFile, retainedEntries.subList(evicted, retainedEntries.size()));
+        LOGGER.info("{} cleanup deleted {} files/directories, evicting {} entries to stay within the size limit.", cleanableStore.getDisplayName(), filesDeleted, evicted);
     }
 
     @Override
     protected boolean shouldDelete(File file) {
         return journal.getLastAccessTime(file) < removeUnusedEntriesOlderThan.get();
     }
+
+    private static String relativePath(File baseDir, File file) {
+        return baseDir.toPath().relativize(file.toPath()).toString();
+    }
+
+    private static long sizeOf(File file) {
+        try {
+            return FileUtils.sizeOf(file);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            // The entry has been removed concurrently
+            return 0;
+        }
+    }
+
+    private static Map<String, Long> readEntrySizes(File entrySizesFile) {
+        if (!entrySizesFile.isFile()) {
+            return Collections.emptyMap();
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(entrySizesFile)))) {
+            int count = input.readInt();
+            Map<String, Long> sizes = new HashMap<>(count);
+            for (int i = 0; i < count; i++) {
+                sizes.put(input.readUTF(), input.readLong());
+            }
+            return sizes;
+        } catch (IOException e) {
+            // Measure all entries again
+            LOGGER.debug("Could not read cache entry sizes from {}.", entrySizesFile, e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private static void writeEntrySizes(File entrySizesFile, List<CacheEntry> entries) {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(entrySizesFile)))) {
+            output.writeInt(entries.size());
+            for (CacheEntry entry : entries) {
+                output.writeUTF(entry.path);
+                output.writeLong(entry.size);
+            }
+        } catch (IOException e) {
+            // The next cleanup measures the entries again
+            LOGGER.debug("Could not write cache entry sizes to {}.", entrySizesFile, e);
+            FileUtils.deleteQuietly(entrySizesFile);
+        }
+    }
+
+    private static class CacheEntry {
+        private final File file;
+        private final String path;
+        private final long lastAccessTime;
+        private final long size;
+
+        CacheEntry(File file, String path, long lastAccessTime, long size) {
+            this.file = file;
+            this.path = path;
+            this.lastAccessTime = lastAccessTime;
+            this.size = size;
+        }
+    }
 }
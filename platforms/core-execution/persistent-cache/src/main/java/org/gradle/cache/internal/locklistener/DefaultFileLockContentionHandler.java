@@ -23,6 +23,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.net.DatagramPacket;
 import java.net.SocketAddress;
 import java.util.HashMap;
@@ -70,6 +71,11 @@
  *    the message is interpreted as confirmation and stored. No further messages are sent to the Lock Owner via
  *    {@link #maybePingOwner(int, long, String, long, FileLockReleasedSignal)}.
  * <p>
+ * A Lock Holder can also register a lock without a release action. Such a lock is not released on demand, but requests
+ * are still confirmed, so Lock Requesters stop pinging it. They are all notified at the same time when the lock is
+ * stopped via {@link #stop(long)} and compete for the lock again. Until then, or when the notification is lost, they keep
+ * polling the lock file with exponential backoff.
+ * <p>
  * As Lock Requester, the state of the request is always stored per lock (lockId) and Lock Holder (port). The Lock Holder
  * for a lock might change without acquiring the lock if several Lock Requester compete for the same lock.
  */
@@ -143,9 +149,11 @@ private void doRun() {
                                     acceptConfirmationAsLockRequester(payload, packet.getPort());
                                 } else {
                                     contendedAction.addRequester(packet.getSocketAddress());
-                                    if (!contendedAction.running) {
+                                    if (!contendedAction.running && contendedAction.action != null) {
                                         startLockReleaseAsLockHolder(contendedAction);
                                     }
+                                    // Also confirmed when the lock is not released on demand: the requester then stops pinging
+                                    // and waits until it is notified by stop(lockId), or until its next poll of the lock file
                                     communicator.confirmUnlockRequest(packet.getSocketAddress(), payload.getLockId());
                                 }
                                 // Processed a request so the socket is still working
@@ -189,7 +197,7 @@ private void acceptConfirmationAsLockRequester(FileLockPacketPayload payload, In
     }
 
     @Override
-    public void start(long lockId, Consumer<FileLockReleasedSignal> whenContended) {
+    public void start(long lockId, @Nullable Consumer<FileLockReleasedSignal> whenContended) {
         lock.lock();
         try {
             // First time use, start up the executors that deal with lock contention
@@ -252,12 +260,21 @@ private void assertNotStopped() {
 
     @Override
     public void stop(long lockId) {
+        Set<SocketAddress> requesters = null;
         lock.lock();
         try {
-            contendedActions.remove(lockId);
+            ContendedAction contendedAction = contendedActions.remove(lockId);
+            // A running release action notifies the requesters itself
+            if (contendedAction != null && !contendedAction.running) {
+                requesters = contendedAction.consumeRequesters();
+            }
         } finally {
             lock.unlock();
         }
+        if (requesters != null && !requesters.isEmpty()) {
+            // Wake up all processes waiting for the lock at once, rather than letting them find out by polling
+            communicator.confirmLockRelease(requesters, lockId);
+        }
     }
 
     @Override
@@ -297,17 +314,19 @@ private FileLockCommunicator getCommunicator() {
     private class ContendedAction implements Runnable {
         private final Lock lock = new ReentrantLock();
         private final long lockId;
+        @Nullable
         private final Consumer<FileLockReleasedSignal> action;
         private Set<SocketAddress> requesters = new LinkedHashSet<>();
         private boolean running;
 
-        private ContendedAction(long lockId, Consumer<FileLockReleasedSignal> action) {
+        private ContendedAction(long lockId, @Nullable Consumer<FileLockReleasedSignal> action) {
             this.lockId = lockId;
             this.action = action;
         }
 
         @Override
         public void run() {
+            assert action != null;
             action.accept(() -> {
                 Set<SocketAddress> requesters = consumeRequesters();
                 if (requesters == null) {
@@ -328,6 +347,7 @@ private void addRequester(SocketAddress contender) {
             }
         }
 
+        @Nullable
         private Set<SocketAddress> consumeRequesters() {
             lock.lock();
             try {
@@ -25,8 +25,19 @@
 
 @ServiceScope(Scope.Global.class)
 public interface FileLockContentionHandler {
-    void start(long lockId, Consumer<FileLockReleasedSignal> whenContended);
+    /**
+     * Starts handling requests from other processes for the given lock.
+     *
+     * @param whenContended the action that releases the lock when another process requests it,
+     * or {@code null} when the lock is not released on demand and the requesters should only be notified once the lock is released.
+     */
+    void start(long lockId, @Nullable Consumer<FileLockReleasedSignal> whenContended);
 
+    /**
+     * Stops handling requests for the given lock.
+     * All requesters that have not been notified yet are notified at once that the lock was released.
+     * They then compete for the lock again, there is no handoff to a particular requester.
+     */
     void stop(long lockId);
 
     int reservePort();
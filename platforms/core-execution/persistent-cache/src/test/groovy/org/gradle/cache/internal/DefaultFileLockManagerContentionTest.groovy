@@ -30,7 +30,10 @@ import org.gradle.test.fixtures.concurrent.ConcurrentSpec
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.function.Consumer
+import java.util.function.LongSupplier
 
 import static org.gradle.cache.FileLockManager.LockMode.Exclusive
 import static org.gradle.cache.FileLockManager.LockMode.Shared
@@ -127,6 +130,120 @@ class DefaultFileLockManagerContentionTest extends ConcurrentSpec {
         }
     }
 
+    def "many lock managers contending for an exclusive lock with release notifications enabled all acquire it"() {
+        given:
+        def file = tmpDir.file("lock-file.bin")
+        def handlers = (1..contenders).collect { new DefaultFileLockContentionHandler(executorFactory, addressProvider) }
+        def random = new Random()
+        def managers = handlers.collect { new DefaultFileLockManager(Stub(ProcessMetaDataProvider), 20000, it, { random.nextLong() } as LongSupplier, true) }
+        def holders = new AtomicInteger()
+        def acquired = new AtomicInteger()
+
+        when:
+        async {
+            managers.each { lockManager ->
+                start {
+                    rounds.times {
+                        def lock = lockManager.lock(file, DefaultLockOptions.mode(Exclusive), "foo", "operation")
+                        try {
+                            assert holders.incrementAndGet() == 1
+                            acquired.incrementAndGet()
+                            holders.decrementAndGet()
+                        } finally {
+                            lock.close()
+                        }
+                    }
+                }
+            }
+        }
+
+        then:
+        acquired.get() == contenders * rounds
+
+        cleanup:
+        CompositeStoppable.stoppable(handlers).stop()
+
+        where:
+        contenders = 10
+        rounds = 20
+    }
+
+    def "waiting lock manager is #description when an exclusive lock without release action is released"() {
+        given:
+        def file = tmpDir.file("lock-file.bin")
+        def holder = new DefaultFileLockManager(Stub(ProcessMetaDataProvider), 2000, contentionHandler, { 1L } as LongSupplier, notifyWaitersOnRelease)
+        def waiterHandler = new SignalRecordingContentionHandler(contentionHandler2, { instant.pinged })
+        def waiter = new DefaultFileLockManager(Stub(ProcessMetaDataProvider), 20000, waiterHandler, { 2L } as LongSupplier, notifyWaitersOnRelease)
+        def lock = createLock(Exclusive, file, holder)
+
+        when:
+        async {
+            start {
+                createLock(Exclusive, file, waiter)
+                instant.acquired
+            }
+            start {
+                thread.blockUntil.pinged
+                sleep(300) //so that the request is received
+                instant.released
+                lock.close()
+            }
+        }
+
+        then:
+        instant.acquired > instant.released
+        waiterHandler.signaled == notifyWaitersOnRelease
+
+        where:
+        notifyWaitersOnRelease | description
+        true                   | "notified"
+        false                  | "not notified"
+    }
+
+    private static class SignalRecordingContentionHandler implements FileLockContentionHandler {
+        private final FileLockContentionHandler delegate
+        private final Runnable onFirstPing
+        private final AtomicBoolean pinged = new AtomicBoolean()
+        volatile boolean signaled
+
+        SignalRecordingContentionHandler(FileLockContentionHandler delegate, Runnable onFirstPing) {
+            this.delegate = delegate
+            this.onFirstPing = onFirstPing
+        }
+
+        @Override
+        void start(long lockId, Consumer<FileLockReleasedSignal> whenContended) {
+            delegate.start(lockId, whenContended)
+        }
+
+        @Override
+        void stop(long lockId) {
+            delegate.stop(lockId)
+        }
+
+        @Override
+        int reservePort() {
+            delegate.reservePort()
+        }
+
+        @Override
+        boolean maybePingOwner(int port, long lockId, String displayName, long timeElapsed, FileLockReleasedSignal signal) {
+            def sent = delegate.maybePingOwner(port, lockId, displayName, timeElapsed, {
+                signaled = true
+                signal.trigger()
+            } as FileLockReleasedSignal)
+            if (sent && pinged.compareAndSet(false, true)) {
+                onFirstPing.run()
+            }
+            return sent
+        }
+
+        @Override
+        boolean isRunning() {
+            delegate.isRunning()
+        }
+    }
+
     FileLock createLock(FileLockManager.LockMode lockMode, File file, FileLockManager lockManager = manager, Consumer<FileLockReleasedSignal> whenContended = null) {
         def lock = lockManager.lock(file, DefaultLockOptions.mode(lockMode), "foo", "operation", whenContended)
         openedLocks << lock
@@ -79,6 +79,104 @@ class LeastRecentlyUsedCacheCleanupTest extends Specification {
         0 * fileAccessTimeJournal.deleteLastAccessTime(_)
     }
 
+    def "deletes least recently used files when cache exceeds size limit"() {
+        given:
+        long now = System.currentTimeMillis()
+        def cacheEntries = [
+            createCacheEntry(now - TimeUnit.HOURS.toMillis(1)),
+            createCacheEntry(now - TimeUnit.HOURS.toMillis(3)),
+            createCacheEntry(now),
+            createCacheEntry(now - TimeUnit.HOURS.toMillis(2)),
+            createCacheEntry(now - TimeUnit.DAYS.toMillis(5)),
+        ]
+        def sizeLimitedCleanupAction = new LeastRecentlyUsedCacheCleanup(
+            new SingleDepthFilesFinder(1), fileAccessTimeJournal, TimestampSuppliers.daysAgo(1), { 2 * 1024L })
+
+        when:
+        sizeLimitedCleanupAction.clean(cleanableStore, progressMonitor)
+
+        then:
+        cacheEntries[0].assertExists()
+        cacheEntries[1].assertDoesNotExist()
+        cacheEntries[2].assertExists()
+        cacheEntries[3].assertDoesNotExist()
+        cacheEntries[4].assertDoesNotExist()
+        1 * fileAccessTimeJournal.deleteLastAccessTime(cacheEntries[1])
+        1 * fileAccessTimeJournal.deleteLastAccessTime(cacheEntries[3])
+        1 * fileAccessTimeJournal.deleteLastAccessTime(cacheEntries[4])
+    }
+
+    def "deletes no recently used files when cache is within size limit"() {
+        given:
+        long now = System.currentTimeMillis()
+        def cacheEntries = [
+            createCacheEntry(now),
+            createCacheEntry(now - TimeUnit.HOURS.toMillis(5)),
+        ]
+        def sizeLimitedCleanupAction = new LeastRecentlyUsedCacheCleanup(
+            new SingleDepthFilesFinder(1), fileAccessTimeJournal, TimestampSuppliers.daysAgo(1), { 2 * 1024L })
+
+        when:
+        sizeLimitedCleanupAction.clean(cleanableStore, progressMonitor)
+
+        then:
+        cacheEntries[0].assertExists()
+        cacheEntries[1].assertExists()
+        0 * fileAccessTimeJournal.deleteLastAccessTime(_)
+    }
+
+    def "measures only entries whose size has not been recorded by an earlier cleanup"() {
+        given:
+        long now = System.currentTimeMillis()
+        def cacheEntries = [
+            createCacheEntry(now - TimeUnit.HOURS.toMillis(1)),
+            createCacheEntry(now),
+        ]
+        def sizeLimitedCleanupAction = new LeastRecentlyUsedCacheCleanup(
+            new SingleDepthFilesFinder(1), fileAccessTimeJournal, TimestampSuppliers.daysAgo(1), { 2 * 1024L })
+
+        when:
+        sizeLimitedCleanupAction.clean(cleanableStore, progressMonitor)
+
+        then:
+        cacheDir.file(LeastRecentlyUsedCacheCleanup.ENTRY_SIZES_FILE_NAME).assertIsFile()
+
+        when:
+        // Entries are immutable, so the recorded size is used even though this one has grown
+        cacheEntries[0].bytes = new byte[2 * 1024]
+        cacheEntries[0].lastModified = now - TimeUnit.HOURS.toMillis(1)
+        sizeLimitedCleanupAction.clean(cleanableStore, progressMonitor)
+
+        then:
+        cacheEntries[0].assertExists()
+        cacheEntries[1].assertExists()
+        cacheDir.file(LeastRecentlyUsedCacheCleanup.ENTRY_SIZES_FILE_NAME).assertIsFile()
+
+        when:
+        def newEntry = createCacheEntry(now)
+        sizeLimitedCleanupAction.clean(cleanableStore, progressMonitor)
+
+        then:
+        cacheEntries[0].assertDoesNotExist()
+        cacheEntries[1].assertExists()
+        newEntry.assertExists()
+    }
+
+    def "removes recorded entry sizes when there is no size limit"() {
+        given:
+        createCacheEntry(System.currentTimeMillis())
+        def entrySizesFile = cacheDir.file(LeastRecentlyUsedCacheCleanup.ENTRY_SIZES_FILE_NAME)
+        new LeastRecentlyUsedCacheCleanup(
+            new SingleDepthFilesFinder(1), fileAccessTimeJournal, TimestampSuppliers.daysAgo(1), { 2 * 1024L }).clean(cleanableStore, progressMonitor)
+        entrySizesFile.assertIsFile()
+
+        when:
+        cleanupAction.clean(cleanableStore, progressMonitor)
+
+        then:
+        entrySizesFile.assertDoesNotExist()
+    }
+
     private Random r = new Random()
     def createCacheEntry(long timestamp) {
         def cacheEntry = cacheDir.file(String.format("%032x", r.nextInt()))
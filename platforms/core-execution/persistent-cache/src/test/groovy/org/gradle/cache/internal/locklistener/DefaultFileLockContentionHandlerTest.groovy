@@ -16,6 +16,7 @@
 
 package org.gradle.cache.internal.locklistener
 
+import org.gradle.cache.FileLockReleasedSignal
 import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.concurrent.ManagedExecutor
 import org.gradle.internal.remote.internal.inet.InetAddressFactory
@@ -85,6 +86,98 @@ class DefaultFileLockContentionHandlerTest extends ConcurrentSpecification {
         }
     }
 
+    def "client receives signal when lock without release action is stopped"() {
+        def signaled = new AtomicBoolean()
+
+        when:
+        int port = handler.reservePort()
+        handler.start(10, null)
+
+        client.reservePort()
+        client.start(11) {}
+        client.maybePingOwner(port, 10, "lock 1", 50000) {
+            signaled.set(true)
+        }
+        sleep(300) //so that the request is received
+
+        then:
+        !signaled.get()
+
+        when:
+        handler.stop(10)
+
+        then:
+        poll {
+            assert signaled.get()
+        }
+    }
+
+    def "client stops pinging a lock without release action once the request is confirmed"() {
+        def signaled = new AtomicBoolean()
+        def signal = { signaled.set(true) } as FileLockReleasedSignal
+
+        when:
+        int port = handler.reservePort()
+        handler.start(10, null)
+
+        client.reservePort()
+        client.start(11) {}
+
+        then:
+        client.maybePingOwner(port, 10, "lock 1", 50000, signal)
+        poll {
+            assert client.unlocksConfirmedFrom[10L] == port
+        }
+        !client.maybePingOwner(port, 10, "lock 1", 50000, signal)
+        !signaled.get()
+
+        when:
+        handler.stop(10)
+
+        then:
+        poll {
+            assert signaled.get()
+        }
+    }
+
+    def "all clients waiting for a lock without release action are signaled at once when it is stopped"() {
+        def otherClient = new DefaultFileLockContentionHandler(executorFactory, addressProvider)
+        def signaled = new AtomicBoolean()
+        def otherSignaled = new AtomicBoolean()
+
+        when:
+        int port = handler.reservePort()
+        handler.start(10, null)
+
+        client.reservePort()
+        client.start(11) {}
+        client.maybePingOwner(port, 10, "lock 1", 50000) {
+            signaled.set(true)
+        }
+        otherClient.reservePort()
+        otherClient.start(12) {}
+        otherClient.maybePingOwner(port, 10, "lock 1", 50000) {
+            otherSignaled.set(true)
+        }
+        sleep(300) //so that the requests are received
+
+        then:
+        !signaled.get()
+        !otherSignaled.get()
+
+        when:
+        handler.stop(10)
+
+        then:
+        poll {
+            assert signaled.get()
+            assert otherSignaled.get()
+        }
+
+        cleanup:
+        otherClient?.stop()
+    }
+
     def "there are only two executors: one lock request listener and one release lock action executor"() {
         def factory = Mock(ExecutorFactory) {
             2 * create(_ as String) >> Mock(ManagedExecutor)
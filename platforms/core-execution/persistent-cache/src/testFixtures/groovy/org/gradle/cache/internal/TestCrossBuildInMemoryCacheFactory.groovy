@@ -22,6 +22,7 @@ import java.util.concurrent.locks.ReentrantLock
 import java.util.function.Consumer
 import java.util.function.Function
 import java.util.function.Predicate
+import java.util.function.ToLongFunction
 
 class TestCrossBuildInMemoryCacheFactory implements CrossBuildInMemoryCacheFactory {
     private final static CrossBuildInMemoryCacheFactory INSTANCE = new TestCrossBuildInMemoryCacheFactory()
@@ -45,6 +46,11 @@ class TestCrossBuildInMemoryCacheFactory implements CrossBuildInMemoryCacheFacto
         return new TestCache<K, V>()
     }
 
+    @Override
+    <K, V> CrossBuildInMemoryCache<K, V> newBoundedCache(String displayName, long maxWeight, ToLongFunction<? super V> weigher) {
+        return new TestCache<K, V>()
+    }
+
     @Override
     <V> CrossBuildInMemoryCache<Class<?>, V> newClassCache() {
         return new TestCache<Class<?>, V>()
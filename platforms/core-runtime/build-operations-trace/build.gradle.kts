@@ -32,9 +32,12 @@ dependencies {
 
     implementation(projects.baseServices)
     implementation(projects.buildOption)
+    implementation(projects.serialization)
 
     implementation(libs.jacksonCore)
     implementation(libs.jacksonDatabind)
     implementation(libs.jacksonDatatypeJdk8)
     implementation(libs.jacksonDatatypeJsr310)
+
+    testImplementation(projects.internalTesting)
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+/**
+ * Constants describing the binary build operation trace format.
+ * <p>
+ * A binary trace starts with {@link #MAGIC} and {@link #VERSION}, followed by a sequence of records.
+ * Each record starts with a tag byte ({@link #START}, {@link #PROGRESS}, {@link #FINISH} or {@link #END}).
+ * Numbers are written as variable length integers.
+ * <p>
+ * Strings are interned: the first occurrence of a string is written in full and assigned the next index in the string table,
+ * later occurrences are written as a reference to that index. Long strings, such as stack traces, are written inline and not interned.
+ * <p>
+ * Details and results are written as a tagged tree of values, equivalent to the JSON produced for the textual trace.
+ */
+class BinaryBuildOperationTraceFormat {
+
+    static final int MAGIC = 0x474f5054;
+    static final byte VERSION = 1;
+
+    // Record tags
+    static final byte START = 1;
+    static final byte PROGRESS = 2;
+    static final byte FINISH = 3;
+    static final byte END = 4;
+
+    // String references, any value greater or equal to STRING_REF_BASE is a reference to an interned string
+    static final int STRING_NULL = 0;
+    static final int STRING_NEW = 1;
+    static final int STRING_INLINE = 2;
+    static final int STRING_REF_BASE = 3;
+
+    /**
+     * Strings longer than this are not interned.
+     */
+    static final int MAX_INTERNED_STRING_LENGTH = 256;
+
+    // Value tags
+    static final byte VALUE_NULL = 0;
+    static final byte VALUE_TRUE = 1;
+    static final byte VALUE_FALSE = 2;
+    static final byte VALUE_LONG = 3;
+    static final byte VALUE_DOUBLE = 4;
+    static final byte VALUE_STRING = 5;
+    static final byte VALUE_ARRAY = 6;
+    static final byte VALUE_OBJECT = 7;
+
+    private BinaryBuildOperationTraceFormat() {
+    }
+}
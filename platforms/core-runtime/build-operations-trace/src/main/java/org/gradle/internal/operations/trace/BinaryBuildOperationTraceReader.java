@@ -0,0 +1,195 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+
+import javax.annotation.Nullable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.END;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.FINISH;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.MAGIC;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.PROGRESS;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.START;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.STRING_INLINE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.STRING_NEW;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.STRING_NULL;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.STRING_REF_BASE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_ARRAY;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_DOUBLE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_FALSE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_LONG;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_NULL;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_OBJECT;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_STRING;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_TRUE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VERSION;
+
+/**
+ * Reads a trace written by {@link BinaryBuildOperationTraceWriter}, one operation at a time.
+ * <p>
+ * Only the string table is retained while reading, so arbitrarily large traces can be processed.
+ * Details and results are decoded to the same maps, lists and primitive values as produced when reading the JSON log.
+ * A trace that was not completely written, for example because the build crashed, is read up to the last complete record.
+ */
+class BinaryBuildOperationTraceReader {
+
+    private final List<String> strings = new ArrayList<>();
+    private final KryoBackedDecoder decoder;
+
+    private BinaryBuildOperationTraceReader(InputStream inputStream) {
+        this.decoder = new KryoBackedDecoder(inputStream, 64 * 1024);
+    }
+
+    static void read(File file, Consumer<? super SerializedOperation> consumer) throws IOException {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            new BinaryBuildOperationTraceReader(inputStream).readRecords(consumer);
+        }
+    }
+
+    private void readRecords(Consumer<? super SerializedOperation> consumer) throws IOException {
+        if (decoder.readInt() != MAGIC) {
+            throw new IOException("Not a binary build operation trace.");
+        }
+        byte version = decoder.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary build operation trace version " + version + ".");
+        }
+        while (true) {
+            SerializedOperation operation;
+            try {
+                operation = readRecord();
+            } catch (EOFException e) {
+                // Trace was truncated
+                return;
+            }
+            if (operation == null) {
+                return;
+            }
+            consumer.accept(operation);
+        }
+    }
+
+    @Nullable
+    private SerializedOperation readRecord() throws IOException {
+        byte tag = decoder.readByte();
+        Map<String, Object> map = new LinkedHashMap<>();
+        switch (tag) {
+            case START:
+                map.put("id", decoder.readSmallLong());
+                if (decoder.readBoolean()) {
+                    map.put("parentId", decoder.readSmallLong());
+                }
+                map.put("displayName", readString());
+                map.put("startTime", decoder.readSmallLong());
+                putIfNotNull(map, "detailsClassName", readString());
+                putIfNotNull(map, "details", readValue());
+                return new SerializedOperationStart(map);
+            case PROGRESS:
+                map.put("id", decoder.readSmallLong());
+                map.put("time", decoder.readSmallLong());
+                putIfNotNull(map, "detailsClassName", readString());
+                putIfNotNull(map, "details", readValue());
+                return new SerializedOperationProgress(map);
+            case FINISH:
+                map.put("id", decoder.readSmallLong());
+                map.put("endTime", decoder.readSmallLong());
+                putIfNotNull(map, "resultClassName", readString());
+                putIfNotNull(map, "result", readValue());
+                putIfNotNull(map, "failure", readString());
+                return new SerializedOperationFinish(map);
+            case END:
+                return null;
+            default:
+                throw new IOException("Unexpected record tag " + tag + " in binary build operation trace.");
+        }
+    }
+
+    private static void putIfNotNull(Map<String, Object> map, String key, @Nullable Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    @Nullable
+    private String readString() throws IOException {
+        int ref = decoder.readSmallInt();
+        switch (ref) {
+            case STRING_NULL:
+                return null;
+            case STRING_INLINE:
+                return decoder.readString();
+            case STRING_NEW:
+                String value = decoder.readString();
+                strings.add(value);
+                return value;
+            default:
+                return strings.get(ref - STRING_REF_BASE);
+        }
+    }
+
+    @Nullable
+    private Object readValue() throws IOException {
+        byte tag = decoder.readByte();
+        switch (tag) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_LONG:
+                long value = decoder.readLong();
+                // Match the types produced by Jackson when reading the JSON log
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    return (int) value;
+                }
+                return value;
+            case VALUE_DOUBLE:
+                return decoder.readDouble();
+            case VALUE_STRING:
+                return readString();
+            case VALUE_ARRAY:
+                int size = decoder.readSmallInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue());
+                }
+                return list;
+            case VALUE_OBJECT:
+                int fields = decoder.readSmallInt();
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < fields; i++) {
+                    String key = readString();
+                    map.put(key, readValue());
+                }
+                return map;
+            default:
+                throw new IOException("Unexpected value tag " + tag + " in binary build operation trace.");
+        }
+    }
+}
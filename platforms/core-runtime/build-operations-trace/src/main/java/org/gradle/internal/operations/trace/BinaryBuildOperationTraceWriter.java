@@ -0,0 +1,272 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.END;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.FINISH;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.MAGIC;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.MAX_INTERNED_STRING_LENGTH;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.PROGRESS;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.START;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.STRING_INLINE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.STRING_NEW;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.STRING_NULL;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.STRING_REF_BASE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_ARRAY;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_DOUBLE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_FALSE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_LONG;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_NULL;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_OBJECT;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_STRING;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VALUE_TRUE;
+import static org.gradle.internal.operations.trace.BinaryBuildOperationTraceFormat.VERSION;
+
+/**
+ * Writes build operations using the {@link BinaryBuildOperationTraceFormat binary trace format}.
+ * <p>
+ * Details and results are converted to a JSON tree on the calling thread, as they may not be safe to access later or from another thread.
+ * Encoding and writing happens on a dedicated executor, so that the build is not slowed down by the I/O.
+ * When writing fails, the executor stops taking records and any further call to this writer fails with the cause.
+ */
+class BinaryBuildOperationTraceWriter implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 16 * 1024;
+    private static final Object END_OF_STREAM = new Object();
+
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final ManagedExecutor writerExecutor;
+    private final KryoBackedEncoder encoder;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private volatile Throwable failure;
+    private volatile boolean writing = true;
+
+    BinaryBuildOperationTraceWriter(OutputStream outputStream, ObjectMapper objectMapper, ExecutorFactory executorFactory) {
+        this.objectMapper = objectMapper;
+        this.encoder = new KryoBackedEncoder(outputStream, 64 * 1024);
+        this.writerExecutor = executorFactory.create("Build operation trace writer");
+        this.writerExecutor.execute(this::writeRecords);
+    }
+
+    static BinaryBuildOperationTraceWriter open(File file, ObjectMapper objectMapper, ExecutorFactory executorFactory) throws IOException {
+        return new BinaryBuildOperationTraceWriter(new FileOutputStream(file), objectMapper, executorFactory);
+    }
+
+    void write(SerializedOperation operation) {
+        rethrowFailure();
+        PendingRecord record;
+        if (operation instanceof SerializedOperationStart) {
+            record = new PendingRecord(operation, toTree(((SerializedOperationStart) operation).details));
+        } else if (operation instanceof SerializedOperationProgress) {
+            record = new PendingRecord(operation, toTree(((SerializedOperationProgress) operation).details));
+        } else {
+            record = new PendingRecord(operation, toTree(((SerializedOperationFinish) operation).result));
+        }
+        enqueue(record);
+    }
+
+    @Override
+    public void close() {
+        if (writing) {
+            enqueue(END_OF_STREAM);
+        }
+        writerExecutor.stop();
+        rethrowFailure();
+    }
+
+    @Nullable
+    private JsonNode toTree(@Nullable Object value) {
+        return value == null ? null : objectMapper.valueToTree(value);
+    }
+
+    private void enqueue(Object record) {
+        try {
+            while (!queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+                // The queue is full: make sure there is still someone to take the record
+                if (!writing) {
+                    rethrowFailure();
+                    throw new IllegalStateException("Build operation trace writer has stopped.");
+                }
+            }
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private void rethrowFailure() {
+        Throwable failure = this.failure;
+        if (failure != null) {
+            throw new IllegalStateException("Could not write build operation trace.", failure);
+        }
+    }
+
+    private void writeRecords() {
+        List<Object> batch = new ArrayList<>();
+        try {
+            encoder.writeInt(MAGIC);
+            encoder.writeByte(VERSION);
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (Object record : batch) {
+                    if (record == END_OF_STREAM) {
+                        encoder.writeByte(END);
+                        encoder.close();
+                        return;
+                    }
+                    writeRecord((PendingRecord) record);
+                }
+                batch.clear();
+                // Make the trace available to readers when the build is idle or crashes
+                if (queue.isEmpty()) {
+                    encoder.flush();
+                }
+            }
+        } catch (Throwable t) {
+            failure = t;
+            // Release the memory held by pending records, producers fail on their next write
+            queue.clear();
+            try {
+                encoder.close();
+            } catch (Throwable ignored) {
+                // Already failed
+            }
+        } finally {
+            writing = false;
+        }
+    }
+
+    private void writeRecord(PendingRecord record) throws IOException {
+        SerializedOperation operation = record.operation;
+        if (operation instanceof SerializedOperationStart) {
+            SerializedOperationStart start = (SerializedOperationStart) operation;
+            encoder.writeByte(START);
+            encoder.writeSmallLong(start.id);
+            if (start.parentId == null) {
+                encoder.writeBoolean(false);
+            } else {
+                encoder.writeBoolean(true);
+                encoder.writeSmallLong(start.parentId);
+            }
+            writeString(start.displayName);
+            encoder.writeSmallLong(start.startTime);
+            writeString(start.detailsClassName);
+            writeValue(record.value);
+        } else if (operation instanceof SerializedOperationProgress) {
+            SerializedOperationProgress progress = (SerializedOperationProgress) operation;
+            encoder.writeByte(PROGRESS);
+            encoder.writeSmallLong(progress.id);
+            encoder.writeSmallLong(progress.time);
+            writeString(progress.detailsClassName);
+            writeValue(record.value);
+        } else {
+            SerializedOperationFinish finish = (SerializedOperationFinish) operation;
+            encoder.writeByte(FINISH);
+            encoder.writeSmallLong(finish.id);
+            encoder.writeSmallLong(finish.endTime);
+            writeString(finish.resultClassName);
+            writeValue(record.value);
+            writeString(finish.failureMsg);
+        }
+    }
+
+    private void writeString(@Nullable String value) {
+        if (value == null) {
+            encoder.writeSmallInt(STRING_NULL);
+            return;
+        }
+        if (value.length() > MAX_INTERNED_STRING_LENGTH) {
+            encoder.writeSmallInt(STRING_INLINE);
+            encoder.writeString(value);
+            return;
+        }
+        Integer index = strings.get(value);
+        if (index != null) {
+            encoder.writeSmallInt(STRING_REF_BASE + index);
+        } else {
+            strings.put(value, strings.size());
+            encoder.writeSmallInt(STRING_NEW);
+            encoder.writeString(value);
+        }
+    }
+
+    private void writeValue(@Nullable JsonNode node) throws IOException {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            encoder.writeByte(VALUE_NULL);
+        } else if (node.isBoolean()) {
+            encoder.writeByte(node.booleanValue() ? VALUE_TRUE : VALUE_FALSE);
+        } else if (node.isIntegralNumber() && node.canConvertToLong()) {
+            encoder.writeByte(VALUE_LONG);
+            encoder.writeLong(node.longValue());
+        } else if (node.isNumber()) {
+            encoder.writeByte(VALUE_DOUBLE);
+            encoder.writeDouble(node.doubleValue());
+        } else if (node.isArray()) {
+            encoder.writeByte(VALUE_ARRAY);
+            encoder.writeSmallInt(node.size());
+            for (JsonNode element : node) {
+                writeValue(element);
+            }
+        } else if (node.isObject()) {
+            encoder.writeByte(VALUE_OBJECT);
+            encoder.writeSmallInt(node.size());
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                writeString(field.getKey());
+                writeValue(field.getValue());
+            }
+        } else {
+            encoder.writeByte(VALUE_STRING);
+            writeString(node.asText());
+        }
+    }
+
+    private static class PendingRecord {
+        final SerializedOperation operation;
+        @Nullable
+        final JsonNode value;
+
+        PendingRecord(SerializedOperation operation, @Nullable JsonNode value) {
+            this.operation = operation;
+            this.value = value;
+        }
+    }
+}
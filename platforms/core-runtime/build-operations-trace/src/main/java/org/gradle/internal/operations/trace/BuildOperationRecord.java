@@ -134,6 +134,10 @@ public boolean hasDetailsOfType(Class<?> clazz) throws ClassNotFoundException {
         return detailsType != null && clazz.isAssignableFrom(detailsType);
     }
 
+    public @Nullable String getDetailsClassName() {
+        return detailsClassName;
+    }
+
     public @Nullable Class<?> getDetailsType() throws ClassNotFoundException {
         return detailsClassName == null ? null : getClass().getClassLoader().loadClass(detailsClassName);
     }
@@ -42,6 +42,7 @@
 import org.gradle.internal.buildoption.InternalFlag;
 import org.gradle.internal.buildoption.InternalOptions;
 import org.gradle.internal.buildoption.StringInternalOption;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationListener;
@@ -69,6 +70,7 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -105,6 +107,11 @@
  * <p>
  * The generation of trees can be very memory hungry and thus can be disabled with
  * {@code -Dorg.gradle.internal.operations.trace.tree=false}.
+ * <p>
+ * For large builds, the log can be written in a compact binary format with {@code -Dorg.gradle.internal.operations.trace.format=binary}.
+ * In this case «path-base»-log.bin is written instead of the JSON log, and instead of the trees,
+ * «path-base»-summary.txt is produced by streaming over the log, which aggregates the operations by type.
+ * The binary log can be converted to the JSON log using {@link #convertToJson(String)}.
  * </p>
  * The "trace" produced here is different to the trace produced by Gradle Profiler.
  * There, the focus is analyzing the performance profile.
@@ -140,6 +147,13 @@ public class BuildOperationTrace implements Stoppable {
 
     private static final InternalFlag TRACE_TREE_OPTION = new InternalFlag(TREE_SYSPROP, true);
 
+    /**
+     * The format of the log, either {@code json} (the default) or {@code binary}.
+     */
+    public static final String FORMAT_SYSPROP = SYSPROP + ".format";
+
+    private static final StringInternalOption FORMAT_OPTION = new StringInternalOption(FORMAT_SYSPROP, "json");
+
     /**
      * Delimiter for entries in {@link #FILTER_SYSPROP}.
      */
@@ -152,16 +166,18 @@ public class BuildOperationTrace implements Stoppable {
     private final String basePath;
 
     private final OutputStream logOutputStream;
+    private final BinaryBuildOperationTraceWriter binaryWriter;
     private final ObjectMapper objectMapper;
     private final BuildOperationListenerManager buildOperationListenerManager;
 
-    public BuildOperationTrace(StartParameter startParameter, BuildOperationListenerManager buildOperationListenerManager) {
+    public BuildOperationTrace(StartParameter startParameter, BuildOperationListenerManager buildOperationListenerManager, ExecutorFactory executorFactory) {
         this.buildOperationListenerManager = buildOperationListenerManager;
 
         InternalOptions internalOptions = new DefaultInternalOptions(startParameter.getSystemPropertiesArgs());
         this.basePath = internalOptions.getOption(TRACE_OPTION).get();
         if (this.basePath == null || basePath.equals(Boolean.FALSE.toString())) {
             this.logOutputStream = null;
+            this.binaryWriter = null;
             this.outputTree = false;
             this.listener = null;
             this.objectMapper = null;
@@ -169,6 +185,7 @@ public BuildOperationTrace(StartParameter startParameter, BuildOperationListener
         }
 
         this.objectMapper = createObjectMapper();
+        boolean binary = isBinaryFormat(internalOptions);
 
         Set<String> filter = getFilter(internalOptions);
         if (filter != null) {
@@ -180,15 +197,24 @@ public BuildOperationTrace(StartParameter startParameter, BuildOperationListener
         }
 
         try {
+            // Remove logs of either format, so that readers do not pick up a stale log
+            deleteIfExists(binaryLogFile(basePath));
             File logFile = logFile(basePath);
-            GFileUtils.mkdirs(logFile.getParentFile());
-            if (logFile.isFile()) {
-                GFileUtils.forceDelete(logFile);
+            deleteIfExists(logFile);
+
+            if (binary) {
+                File binaryLogFile = binaryLogFile(basePath);
+                GFileUtils.mkdirs(binaryLogFile.getParentFile());
+                this.logOutputStream = null;
+                this.binaryWriter = BinaryBuildOperationTraceWriter.open(binaryLogFile, objectMapper, executorFactory);
+            } else {
+                GFileUtils.mkdirs(logFile.getParentFile());
+                //noinspection ResultOfMethodCallIgnored
+                logFile.createNewFile();
+
+                this.logOutputStream = new BufferedOutputStream(new FileOutputStream(logFile));
+                this.binaryWriter = null;
             }
-            //noinspection ResultOfMethodCallIgnored
-            logFile.createNewFile();
-
-            this.logOutputStream = new BufferedOutputStream(new FileOutputStream(logFile));
         } catch (IOException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
@@ -206,6 +232,23 @@ private static Set<String> getFilter(InternalOptions internalOptions) {
         return new HashSet<>(Arrays.asList(filterProperty.split(FILTER_SEPARATOR)));
     }
 
+    private static boolean isBinaryFormat(InternalOptions internalOptions) {
+        String format = internalOptions.getOption(FORMAT_OPTION).get();
+        if ("binary".equals(format)) {
+            return true;
+        }
+        if (format == null || "json".equals(format)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unsupported build operation trace format '" + format + "', expected 'json' or 'binary'.");
+    }
+
+    private static void deleteIfExists(File file) {
+        if (file.isFile()) {
+            GFileUtils.forceDelete(file);
+        }
+    }
+
     @Override
     public void stop() {
         buildOperationListenerManager.removeListener(listener);
@@ -216,7 +259,7 @@ public void stop() {
                 }
 
                 if (outputTree) {
-                    List<BuildOperationRecord> roots = readLogToTreeRoots(logFile(basePath), false);
+                    List<BuildOperationRecord> roots = readLogToTreeRoots(basePath, false);
                     writeDetailTree(roots);
                     writeSummaryTree(roots);
                 }
@@ -224,9 +267,23 @@ public void stop() {
                 throw UncheckedException.throwAsUncheckedException(e);
             }
         }
+        if (binaryWriter != null) {
+            binaryWriter.close();
+            if (outputTree) {
+                try {
+                    writeOperationTypeSummary();
+                } catch (IOException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+        }
     }
 
     private void write(SerializedOperation operation) {
+        if (binaryWriter != null) {
+            binaryWriter.write(operation);
+            return;
+        }
         try {
             String json = objectMapper.writeValueAsString(operation.toMap());
             synchronized (logOutputStream) {
@@ -318,12 +375,85 @@ private void writeSummaryTree(final List<BuildOperationRecord> roots) throws IOE
         }
     }
 
+    /**
+     * Writes the number of operations and their total and maximum duration per details type, without building the tree in memory.
+     */
+    private void writeOperationTypeSummary() throws IOException {
+        Map<String, OperationTypeSummary> summaries = new HashMap<>();
+        visitRecords(basePath, record -> {
+            String type = record.getDetailsClassName() == null ? "(no details)" : record.getDetailsClassName();
+            summaries.computeIfAbsent(type, OperationTypeSummary::new).add(record.endTime - record.startTime);
+        });
+
+        List<OperationTypeSummary> sorted = new ArrayList<>(summaries.values());
+        sorted.sort(Comparator.comparingLong((OperationTypeSummary summary) -> summary.totalTime).reversed());
+
+        Path outputPath = Paths.get(basePath + "-summary.txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)) {
+            for (OperationTypeSummary summary : sorted) {
+                writer.write(summary.type + " count=" + summary.count + " total=" + summary.totalTime + "ms max=" + summary.maxTime + "ms");
+                writer.newLine();
+            }
+        }
+    }
+
     public static BuildOperationTree read(String basePath) {
-        File logFile = logFile(basePath);
-        List<BuildOperationRecord> roots = readLogToTreeRoots(logFile, true);
+        List<BuildOperationRecord> roots = readLogToTreeRoots(basePath, true);
         return new BuildOperationTree(roots);
     }
 
+    /**
+     * Visits each operation of a trace as it finishes, without building the tree in memory.
+     * Only the operations that are running at any point in time are retained, so this can be used to aggregate traces of very large builds.
+     * <p>
+     * The visited records contain their progress events, but no children.
+     *
+     * @param basePath The same path used for {@link #SYSPROP} when the trace was recorded.
+     */
+    public static void visitRecords(String basePath, Consumer<? super BuildOperationRecord> visitor) {
+        Map<Long, PendingOperation> pendings = new HashMap<>();
+        readLog(basePath, operation -> {
+            if (operation instanceof SerializedOperationStart) {
+                SerializedOperationStart start = (SerializedOperationStart) operation;
+                pendings.put(start.id, new PendingOperation(start));
+            } else if (operation instanceof SerializedOperationProgress) {
+                SerializedOperationProgress progress = (SerializedOperationProgress) operation;
+                PendingOperation pending = pendings.get(progress.id);
+                if (pending != null) {
+                    pending.progress.add(progress);
+                }
+            } else {
+                SerializedOperationFinish finish = (SerializedOperationFinish) operation;
+                PendingOperation pending = pendings.remove(finish.id);
+                if (pending != null) {
+                    visitor.accept(toRecord(pending, finish, Collections.emptyList()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Converts a binary trace to the JSON log, so that it can be used with tooling for the JSON format.
+     *
+     * @param basePath The same path used for {@link #SYSPROP} when the trace was recorded.
+     */
+    public static void convertToJson(String basePath) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        File logFile = logFile(basePath);
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(logFile))) {
+            BinaryBuildOperationTraceReader.read(binaryLogFile(basePath), operation -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(operation.toMap()));
+                    outputStream.write(NEWLINE);
+                } catch (IOException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
     /**
      * Reads a list of records that represent a partial build operation tree.
      * Some operations may not contain all of their children.
@@ -333,22 +463,117 @@ public static BuildOperationTree read(String basePath) {
      * @param basePath The same path used for {@link #SYSPROP} when the trace was recorded.
      */
     public static BuildOperationTree readPartialTree(String basePath) {
-        File logFile = logFile(basePath);
-        List<BuildOperationRecord> partialTree = readLogToTreeRoots(logFile, false);
+        List<BuildOperationRecord> partialTree = readLogToTreeRoots(basePath, false);
         return new BuildOperationTree(partialTree);
     }
 
-    private static List<BuildOperationRecord> readLogToTreeRoots(final File logFile, boolean completeTree) {
-        try {
-            final ObjectMapper objectMapper = new ObjectMapper();
+    private static List<BuildOperationRecord> readLogToTreeRoots(String basePath, boolean completeTree) {
+        final List<BuildOperationRecord> roots = new ArrayList<>();
+        final Map<Object, PendingOperation> pendings = new HashMap<>();
+        final Map<Object, List<BuildOperationRecord>> childrens = new HashMap<>();
+
+        final List<SerializedOperationProgress> danglingProgress = new ArrayList<>();
+
+        readLog(basePath, operation -> {
+            if (operation instanceof SerializedOperationStart) {
+                SerializedOperationStart serialized = (SerializedOperationStart) operation;
+                pendings.put(serialized.id, new PendingOperation(serialized));
+                childrens.put(serialized.id, new LinkedList<>());
+            } else if (operation instanceof SerializedOperationProgress) {
+                SerializedOperationProgress serialized = (SerializedOperationProgress) operation;
+                PendingOperation pending = pendings.get(serialized.id);
+                if (pending != null) {
+                    pending.progress.add(serialized);
+                } else {
+                    if (completeTree) {
+                        throw new IllegalStateException("did not find owner of progress event with ID " + serialized.id);
+                    }
+
+                    danglingProgress.add(serialized);
+                }
+            } else {
+                SerializedOperationFinish finish = (SerializedOperationFinish) operation;
+
+                PendingOperation pending = pendings.remove(finish.id);
+                assert pending != null;
+
+                List<BuildOperationRecord> children = childrens.remove(finish.id);
+                assert children != null;
 
-            final List<BuildOperationRecord> roots = new ArrayList<>();
-            final Map<Object, PendingOperation> pendings = new HashMap<>();
-            final Map<Object, List<BuildOperationRecord>> childrens = new HashMap<>();
+                SerializedOperationStart start = pending.start;
+                BuildOperationRecord record = toRecord(pending, finish, BuildOperationRecord.ORDERING.immutableSortedCopy(children));
 
-            final List<SerializedOperationProgress> danglingProgress = new ArrayList<>();
+                if (start.parentId == null) {
+                    roots.add(record);
+                } else {
+                    List<BuildOperationRecord> parentChildren = childrens.get(start.parentId);
+                    if (parentChildren != null) {
+                        parentChildren.add(record);
+                    } else {
+                        if (completeTree) {
+                            throw new IllegalStateException("parentChildren != null for operation " + start.id + " from " + basePath);
+                        }
+
+                        // We are not expecting a complete tree, so it is possible that the parent
+                        // was never serialized. In that case, just treat this record as a root.
+                        roots.add(record);
+                    }
+                }
+            }
+        });
+
+        assert pendings.isEmpty();
+
+        if (!completeTree && !danglingProgress.isEmpty()) {
+            // There were dangling progress events that have parent operations which were not serialized.
+            // Add a dummy root operation to hold these events.
+            roots.add(new BuildOperationRecord(
+                -1L, null,
+                "Dangling pending operations",
+                0L, 0L, null, null, null, null, null,
+                danglingProgress,
+                Collections.emptyList()
+            ));
+        }
+
+        return roots;
+    }
+
+    private static BuildOperationRecord toRecord(PendingOperation pending, SerializedOperationFinish finish, List<BuildOperationRecord> children) {
+        SerializedOperationStart start = pending.start;
+
+        Map<String, ?> detailsMap = uncheckedCast(start.details);
+        Map<String, ?> resultMap = uncheckedCast(finish.result);
+
+        return new BuildOperationRecord(
+            start.id,
+            start.parentId,
+            start.displayName,
+            start.startTime,
+            finish.endTime,
+            detailsMap == null ? null : Collections.unmodifiableMap(detailsMap),
+            start.detailsClassName,
+            resultMap == null ? null : Collections.unmodifiableMap(resultMap),
+            finish.resultClassName,
+            finish.failureMsg,
+            pending.progress,
+            children
+        );
+    }
 
-            try (Stream<String> lines = Files.lines(logFile.toPath())) {
+    /**
+     * Reads the operations of a trace in the order they were recorded, from the binary log when present, otherwise from the JSON log.
+     */
+    private static void readLog(String basePath, Consumer<SerializedOperation> consumer) {
+        try {
+            File binaryLogFile = binaryLogFile(basePath);
+            if (binaryLogFile.isFile()) {
+                BinaryBuildOperationTraceReader.read(binaryLogFile, consumer);
+                return;
+            }
+
+            final ObjectMapper objectMapper = new ObjectMapper();
+            try (Stream<String> lines = Files.lines(logFile(basePath).toPath())) {
                 lines.forEach(line -> {
                     Map<String, ?> map;
                     try {
@@ -358,99 +583,50 @@ private static List<BuildOperationRecord> readLogToTreeRoots(final File logFile,
                     }
 
                     if (map.containsKey("startTime")) {
-                        SerializedOperationStart serialized = new SerializedOperationStart(map);
-                        pendings.put(serialized.id, new PendingOperation(serialized));
-                        childrens.put(serialized.id, new LinkedList<>());
+                        consumer.accept(new SerializedOperationStart(map));
                     } else if (map.containsKey("time")) {
-                        SerializedOperationProgress serialized = new SerializedOperationProgress(map);
-                        PendingOperation pending = pendings.get(serialized.id);
-                        if (pending != null) {
-                            pending.progress.add(serialized);
-                        } else {
-                            if (completeTree) {
-                                throw new IllegalStateException("did not find owner of progress event with ID " + serialized.id);
-                            }
-
-                            danglingProgress.add(serialized);
-                        }
+                        consumer.accept(new SerializedOperationProgress(map));
                     } else {
-                        SerializedOperationFinish finish = new SerializedOperationFinish(map);
-
-                        PendingOperation pending = pendings.remove(finish.id);
-                        assert pending != null;
-
-                        List<BuildOperationRecord> children = childrens.remove(finish.id);
-                        assert children != null;
-
-                        SerializedOperationStart start = pending.start;
-
-                        Map<String, ?> detailsMap = uncheckedCast(start.details);
-                        Map<String, ?> resultMap = uncheckedCast(finish.result);
-
-                        BuildOperationRecord record = new BuildOperationRecord(
-                            start.id,
-                            start.parentId,
-                            start.displayName,
-                            start.startTime,
-                            finish.endTime,
-                            detailsMap == null ? null : Collections.unmodifiableMap(detailsMap),
-                            start.detailsClassName,
-                            resultMap == null ? null : Collections.unmodifiableMap(resultMap),
-                            finish.resultClassName,
-                            finish.failureMsg,
-                            pending.progress,
-                            BuildOperationRecord.ORDERING.immutableSortedCopy(children)
-                        );
-
-                        if (start.parentId == null) {
-                            roots.add(record);
-                        } else {
-                            List<BuildOperationRecord> parentChildren = childrens.get(start.parentId);
-                            if (parentChildren != null) {
-                                parentChildren.add(record);
-                            } else {
-                                if (completeTree) {
-                                    throw new IllegalStateException("parentChildren != null '" + line + "' from " + logFile);
-                                }
-
-                                // We are not expecting a complete tree, so it is possible that the parent
-                                // was never serialized. In that case, just treat this record as a root.
-                                roots.add(record);
-                            }
-                        }
+                        consumer.accept(new SerializedOperationFinish(map));
                     }
                 });
             }
-
-            assert pendings.isEmpty();
-
-            if (!completeTree && !danglingProgress.isEmpty()) {
-                // There were dangling progress events that have parent operations which were not serialized.
-                // Add a dummy root operation to hold these events.
-                roots.add(new BuildOperationRecord(
-                    -1L, null,
-                    "Dangling pending operations",
-                    0L, 0L, null, null, null, null, null,
-                    danglingProgress,
-                    Collections.emptyList()
-                ));
-            }
-
-            return roots;
         } catch (Exception e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
-
     }
 
     private static File logFile(String basePath) {
         return file(basePath, "-log.txt");
     }
 
+    private static File binaryLogFile(String basePath) {
+        return file(basePath, "-log.bin");
+    }
+
     private static File file(@Nullable String base, String suffix) {
         return new File((base == null || base.trim().isEmpty() ? "operations" : base) + suffix).getAbsoluteFile();
     }
 
+    private static class OperationTypeSummary {
+
+        final String type;
+        int count;
+        long totalTime;
+        long maxTime;
+
+        OperationTypeSummary(String type) {
+            this.type = type;
+        }
+
+        void add(long duration) {
+            count++;
+            totalTime += duration;
+            maxTime = Math.max(maxTime, duration);
+        }
+
+    }
+
     static class PendingOperation {
 
         final SerializedOperationStart start;
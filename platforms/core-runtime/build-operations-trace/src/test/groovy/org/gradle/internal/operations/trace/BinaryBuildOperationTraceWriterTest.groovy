@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.google.common.base.Throwables
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+import spock.lang.Timeout
+
+class BinaryBuildOperationTraceWriterTest extends Specification {
+
+    @Timeout(60)
+    def "fails instead of blocking when the output cannot be written"() {
+        given:
+        def writer = new BinaryBuildOperationTraceWriter(new FailingOutputStream(), new ObjectMapper(), new DefaultExecutorFactory())
+
+        when:
+        // More records than fit in the queue
+        100_000.times {
+            writer.write(new SerializedOperationStart([id: it, displayName: "operation $it".toString(), startTime: it]))
+        }
+
+        then:
+        def e = thrown(IllegalStateException)
+        Throwables.getRootCause(e) instanceof IOException
+        Throwables.getRootCause(e).message == "broken"
+
+        when:
+        writer.close()
+
+        then:
+        e = thrown(IllegalStateException)
+        Throwables.getRootCause(e).message == "broken"
+    }
+
+    private static class FailingOutputStream extends OutputStream {
+        @Override
+        void write(int b) throws IOException {
+            throw new IOException("broken")
+        }
+
+        @Override
+        void write(byte[] b, int off, int len) throws IOException {
+            throw new IOException("broken")
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace
+
+import org.gradle.StartParameter
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.operations.BuildOperationDescriptor
+import org.gradle.internal.operations.DefaultBuildOperationListenerManager
+import org.gradle.internal.operations.OperationFinishEvent
+import org.gradle.internal.operations.OperationIdentifier
+import org.gradle.internal.operations.OperationProgressEvent
+import org.gradle.internal.operations.OperationStartEvent
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class BuildOperationTraceTest extends Specification {
+
+    @Rule
+    final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def "reads back nested operations, progress and failures from a #format trace"() {
+        given:
+        def basePath = tmpDir.file("trace").absolutePath
+
+        when:
+        record(basePath, format)
+        def tree = BuildOperationTrace.read(basePath)
+
+        then:
+        tree.roots.size() == 1
+        def root = tree.roots[0]
+        root.id == 1L
+        root.parentId == null
+        root.displayName == "Run build"
+        root.startTime == 100L
+        root.endTime == 200L
+        root.details == [path: ":", count: 3, nested: [enabled: true, ratio: 0.5d, items: ["a", "b"]]]
+        root.result == [outcome: "done"]
+        root.failure == null
+        root.progress.size() == 1
+        root.progress[0].time == 150L
+        root.progress[0].details == [message: "halfway"]
+
+        root.children*.displayName == ["Configure", "Execute"]
+        def configure = root.children[0]
+        configure.parentId == 1L
+        configure.details == null
+        configure.failure == null
+        def execute = root.children[1]
+        execute.parentId == 1L
+        execute.failure == "java.lang.RuntimeException: broken"
+        execute.children*.displayName == ["Task :a"]
+        execute.children[0].parentId == 3L
+        execute.children[0].details == [taskPath: ":a"]
+
+        where:
+        format << ["json", "binary"]
+    }
+
+    def "visits operations as they finish without building the tree"() {
+        given:
+        def basePath = tmpDir.file("trace").absolutePath
+        record(basePath, "binary")
+        def visited = []
+
+        when:
+        BuildOperationTrace.visitRecords(basePath) { visited << it }
+
+        then:
+        visited*.displayName == ["Configure", "Task :a", "Execute", "Run build"]
+        visited.every { it.children.empty }
+        visited.last().progress.size() == 1
+    }
+
+    def "converting a binary trace produces the same log as the JSON writer"() {
+        given:
+        def jsonBasePath = tmpDir.file("json/trace").absolutePath
+        def binaryBasePath = tmpDir.file("binary/trace").absolutePath
+        record(jsonBasePath, "json")
+        record(binaryBasePath, "binary")
+
+        when:
+        BuildOperationTrace.convertToJson(binaryBasePath)
+
+        then:
+        def expected = new File(jsonBasePath + "-log.txt").readLines()
+        expected.size() == 9
+        new File(binaryBasePath + "-log.txt").readLines() == expected
+    }
+
+    private static void record(String basePath, String format) {
+        def startParameter = new StartParameter()
+        startParameter.systemPropertiesArgs = [
+            (BuildOperationTrace.SYSPROP): basePath,
+            (BuildOperationTrace.FORMAT_SYSPROP): format
+        ]
+        def listenerManager = new DefaultBuildOperationListenerManager()
+        def trace = new BuildOperationTrace(startParameter, listenerManager, new DefaultExecutorFactory())
+        def listener = listenerManager.broadcaster
+
+        def root = operation(1, null, "Run build", [path: ":", count: 3, nested: [enabled: true, ratio: 0.5d, items: ["a", "b"]]])
+        def configure = operation(2, 1, "Configure", null)
+        def execute = operation(3, 1, "Execute", null)
+        def task = operation(4, 3, "Task :a", [taskPath: ":a"])
+
+        listener.started(root, new OperationStartEvent(100))
+        listener.started(configure, new OperationStartEvent(110))
+        listener.finished(configure, new OperationFinishEvent(110, 120, null, null))
+        listener.progress(root.id, new OperationProgressEvent(150, [message: "halfway"]))
+        listener.started(execute, new OperationStartEvent(160))
+        listener.started(task, new OperationStartEvent(170))
+        listener.finished(task, new OperationFinishEvent(170, 180, null, null))
+        listener.finished(execute, new OperationFinishEvent(160, 190, new RuntimeException("broken"), null))
+        listener.finished(root, new OperationFinishEvent(100, 200, null, [outcome: "done"]))
+
+        trace.stop()
+    }
+
+    private static BuildOperationDescriptor operation(long id, Long parentId, String displayName, Map<String, ?> details) {
+        def builder = BuildOperationDescriptor.displayName(displayName)
+        if (details != null) {
+            builder.details(details)
+        }
+        return builder.build(new OperationIdentifier(id), parentId == null ? null : new OperationIdentifier(parentId))
+    }
+}
@@ -1343,21 +1343,37 @@ public static class ParserHelper {
 
         static final String W3C_XML_SCHEMA = "http://www.w3.org/2001/XMLSchema";
 
+        private static final SAXParserFactory NON_VALIDATING_PARSER_FACTORY;
+        private static final SAXParserFactory VALIDATING_PARSER_FACTORY;
+
+        static {
+            // Looking up the factory implementation is expensive, so do it once rather than for every descriptor.
+            // Set the context classloader to the bootstrap classloader, to work around how JAXP locates implementation classes
+            ClassLoader original = Thread.currentThread().getContextClassLoader();
+            Thread.currentThread().setContextClassLoader(ClassLoaderUtils.getPlatformClassLoader());
+            try {
+                NON_VALIDATING_PARSER_FACTORY = newSAXParserFactory(false);
+                VALIDATING_PARSER_FACTORY = newSAXParserFactory(true);
+            } finally {
+                Thread.currentThread().setContextClassLoader(original);
+            }
+        }
+
+        private static SAXParserFactory newSAXParserFactory(boolean validating) {
+            SAXParserFactory parserFactory = XmlFactories.newSAXParserFactory();
+            parserFactory.setValidating(validating);
+            parserFactory.setNamespaceAware(true);
+            return parserFactory;
+        }
+
         private static SAXParser newSAXParser(URL schema, InputStream schemaStream)
                 throws ParserConfigurationException, SAXException {
             if (schema == null) {
-                SAXParserFactory parserFactory = XmlFactories.newSAXParserFactory();
-                parserFactory.setValidating(false);
-                parserFactory.setNamespaceAware(true);
-                SAXParser parser = parserFactory.newSAXParser();
+                SAXParser parser = NON_VALIDATING_PARSER_FACTORY.newSAXParser();
                 parser.getXMLReader().setFeature(XML_NAMESPACE_PREFIXES, true);
                 return parser;
             } else {
-                SAXParserFactory parserFactory = XmlFactories.newSAXParserFactory();
-                parserFactory.setValidating(true);
-                parserFactory.setNamespaceAware(true);
-
-                SAXParser parser = parserFactory.newSAXParser();
+                SAXParser parser = VALIDATING_PARSER_FACTORY.newSAXParser();
                 parser.setProperty(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
                 parser.setProperty(JAXP_SCHEMA_SOURCE, schemaStream);
                 parser.getXMLReader().setFeature(XML_NAMESPACE_PREFIXES, true);
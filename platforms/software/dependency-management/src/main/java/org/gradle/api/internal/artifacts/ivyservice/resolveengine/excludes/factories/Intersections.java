@@ -32,7 +32,10 @@
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.stream.Collectors.toSet;
 
@@ -41,6 +44,12 @@ class Intersections {
     private final ExcludeFactory factory;
     private final List<Intersection<? extends ExcludeSpec, ? extends ExcludeSpec>> intersections = new ArrayList<>();
 
+    /**
+     * Which intersection applies only depends on the concrete types of the 2 specs, so
+     * we remember it for each pair of types instead of testing every intersection each time.
+     */
+    private final Map<Class<?>, Map<Class<?>, Optional<Intersection<? extends ExcludeSpec, ? extends ExcludeSpec>>>> intersectionsByType = new ConcurrentHashMap<>();
+
     public Intersections(ExcludeFactory factory) {
         this.factory = factory;
 
@@ -81,14 +90,35 @@ ExcludeSpec tryIntersect(ExcludeSpec left, ExcludeSpec right) {
         if (left.equals(right)) {
             return left;
         } else {
-            return intersections.stream()
-                .filter(i -> i.applies(left, right))
-                .findFirst()
+            return intersectionFor(left, right)
                 .map(i -> i.intersect(left, right, factory))
                 .orElse(null);
         }
     }
 
+    private Optional<Intersection<? extends ExcludeSpec, ? extends ExcludeSpec>> intersectionFor(ExcludeSpec left, ExcludeSpec right) {
+        return intersectionsByType
+            .computeIfAbsent(left.getClass(), k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(right.getClass(), k -> intersections.stream()
+                .filter(i -> i.applies(left, right))
+                .findFirst());
+    }
+
+    /**
+     * Returns the elements present in both sets, probing the larger set with the elements of the smaller one.
+     */
+    private static <T> Set<T> intersectSets(Set<T> left, Set<T> right) {
+        Set<T> smaller = left.size() <= right.size() ? left : right;
+        Set<T> larger = smaller == left ? right : left;
+        Set<T> common = Sets.newHashSetWithExpectedSize(smaller.size());
+        for (T element : smaller) {
+            if (larger.contains(element)) {
+                common.add(element);
+            }
+        }
+        return common;
+    }
+
     @NonNullApi
     private final class IntersectAnyWithAny extends AbstractIntersection<ExcludeAnyOf, ExcludeAnyOf> {
         public IntersectAnyWithAny() {
@@ -224,7 +254,7 @@ private IntersectGroupWithGroupSet() {
         @Override
         public ExcludeSpec doIntersect(GroupExclude left, GroupSetExclude right, ExcludeFactory factory) {
             String group = left.getGroup();
-            if (right.getGroups().stream().anyMatch(g -> g.equals(group))) {
+            if (right.getGroups().contains(group)) {
                 return left;
             }
             return factory.nothing();
@@ -281,10 +311,7 @@ private IntersectGroupSetWithGroupSet() {
 
         @Override
         public ExcludeSpec doIntersect(GroupSetExclude left, GroupSetExclude right, ExcludeFactory factory) {
-            Set<String> groups = left.getGroups();
-            Set<String> common = Sets.newHashSet(right.getGroups());
-            common.retainAll(groups);
-            return factory.fromGroups(common);
+            return factory.fromGroups(intersectSets(left.getGroups(), right.getGroups()));
         }
     }
 
@@ -364,7 +391,7 @@ private IntersectModuleWithModuleSet() {
         @Override
         public ExcludeSpec doIntersect(ModuleExclude left, ModuleSetExclude right, ExcludeFactory factory) {
             String module = left.getModule();
-            if (right.getModules().stream().anyMatch(g -> g.equals(module))) {
+            if (right.getModules().contains(module)) {
                 return left;
             }
             return factory.nothing();
@@ -440,10 +467,7 @@ private IntersectModuleIdSetWithModuleIdSet() {
 
         @Override
         public ExcludeSpec doIntersect(ModuleIdSetExclude left, ModuleIdSetExclude right, ExcludeFactory factory) {
-            Set<ModuleIdentifier> moduleIds = left.getModuleIds();
-            Set<ModuleIdentifier> common = Sets.newHashSet(right.getModuleIds());
-            common.retainAll(moduleIds);
-            return factory.fromModuleIds(common);
+            return factory.fromModuleIds(intersectSets(left.getModuleIds(), right.getModuleIds()));
         }
     }
 
@@ -479,8 +503,7 @@ private IntersectModuleSetWithModuleSet() {
 
         @Override
         public ExcludeSpec doIntersect(ModuleSetExclude left, ModuleSetExclude right, ExcludeFactory factory) {
-            Set<String> modules = Sets.newHashSet(left.getModules());
-            modules.retainAll(right.getModules());
+            Set<String> modules = intersectSets(left.getModules(), right.getModules());
             if (modules.isEmpty()) {
                 return factory.nothing();
             }
@@ -22,6 +22,7 @@
 import org.gradle.api.artifacts.component.ComponentSelector;
 import org.gradle.api.artifacts.component.ModuleComponentSelector;
 import org.gradle.api.internal.artifacts.ComponentSelectorConverter;
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier;
 import org.gradle.api.internal.artifacts.ResolvedVersionConstraint;
 import org.gradle.api.internal.artifacts.configurations.ConflictResolution;
 import org.gradle.api.internal.artifacts.dsl.ImmutableModuleReplacements;
@@ -235,21 +236,21 @@ public void execute(CapabilityInternal capability) {
                 // an implicit capability for each module that we see, we only consider modules which _declare_ capabilities. If they do,
                 // then we try to find a module which provides the same capability. It that module has been found, then we register it.
                 // Otherwise, we have nothing to do. This avoids most of registrations.
+                // Look the module up by id rather than scanning all modules, as this runs for every node of a component with more
+                // than one selected variant, such as components used both as a platform and as a library, and graphs can be large.
                 Collection<NodeState> implicitProvidersForCapability = Collections.emptyList();
-                for (ModuleResolveState state : resolveState.getModules()) {
-                    if (state.getId().getGroup().equals(capability.getGroup()) && state.getId().getName().equals(capability.getName())) {
-                        Collection<ComponentState> versions = state.getVersions();
-                        implicitProvidersForCapability = new ArrayList<>(versions.size());
-                        for (ComponentState version : versions) {
-                            List<NodeState> nodes = version.getNodes();
-                            for (NodeState nodeState : nodes) {
-                                // Collect nodes as implicit capability providers if different than current node, selected and not having explicit capabilities
-                                if (node != nodeState && nodeState.isSelected() && doesNotDeclareExplicitCapability(nodeState)) {
-                                    implicitProvidersForCapability.add(nodeState);
-                                }
+                ModuleResolveState state = resolveState.findModule(DefaultModuleIdentifier.newId(capability.getGroup(), capability.getName()));
+                if (state != null) {
+                    Collection<ComponentState> versions = state.getVersions();
+                    implicitProvidersForCapability = new ArrayList<>(versions.size());
+                    for (ComponentState version : versions) {
+                        List<NodeState> nodes = version.getNodes();
+                        for (NodeState nodeState : nodes) {
+                            // Collect nodes as implicit capability providers if different than current node, selected and not having explicit capabilities
+                            if (node != nodeState && nodeState.isSelected() && doesNotDeclareExplicitCapability(nodeState)) {
+                                implicitProvidersForCapability.add(nodeState);
                             }
                         }
-                        break;
                     }
                 }
                 PotentialConflict c = capabilitiesConflictHandler.registerCandidate(
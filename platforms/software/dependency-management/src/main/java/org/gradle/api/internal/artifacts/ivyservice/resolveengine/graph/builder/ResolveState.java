@@ -195,6 +195,14 @@ public ModuleResolveState getModule(ModuleIdentifier id) {
         return getModule(id, false);
     }
 
+    /**
+     * Returns the state of the given module if it is already part of the graph, without adding it.
+     */
+    @Nullable
+    public ModuleResolveState findModule(ModuleIdentifier id) {
+        return modules.get(id);
+    }
+
     public ComponentMetaDataResolver getComponentMetadataResolver() {
         return metaDataResolver;
     }
@@ -413,7 +413,8 @@ private void writePluginAccessors(ClassNode classNode) throws IOException {
 
     private void writeSubAccessorFieldFor(ClassNode classNode, AccessorKind kind) throws IOException {
         String className = getClassName(classNode);
-        writeLn("private final " + className + " " + kind.accessorVariableNameFor(className) + " = new " + className + "(" + kind.getConstructorParams() + ");");
+        // Sub accessors are created on first access, so that large catalogs only load the classes of the groups actually used
+        writeLn("private " + className + " " + kind.accessorVariableNameFor(className) + ";");
     }
 
     private void writeSubAccessorFieldsOf(ClassNode classNode, AccessorKind kind) throws IOException {
@@ -610,7 +611,11 @@ private void writeSubAccessor(ClassNode classNode, AccessorKind kind, boolean de
         writeDeprecationAnnotation(deprecated);
         writeLn("public " + className + " get" + toJavaName(getter) + "() {");
         writeDeprecationLog(deprecated);
-        writeLn("    return " + kind.accessorVariableNameFor(className) + ";");
+        String variableName = kind.accessorVariableNameFor(className);
+        writeLn("    if (" + variableName + " == null) {");
+        writeLn("        " + variableName + " = new " + className + "(" + kind.getConstructorParams() + ");");
+        writeLn("    }");
+        writeLn("    return " + variableName + ";");
         writeLn("}");
         writeLn();
     }
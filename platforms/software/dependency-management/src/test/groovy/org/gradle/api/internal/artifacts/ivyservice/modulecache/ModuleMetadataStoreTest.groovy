@@ -19,15 +19,25 @@ package org.gradle.api.internal.artifacts.ivyservice.modulecache
 import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
 import org.gradle.api.internal.artifacts.DependencyManagementTestUtil
 import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory
+import org.gradle.api.internal.artifacts.capability.CapabilitySelectorSerializer
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.DesugaredAttributeContainerSerializer
+import org.gradle.internal.component.external.descriptor.MavenScope
 import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector
+import org.gradle.internal.component.external.model.maven.MavenDependencyDescriptor
+import org.gradle.internal.component.external.model.maven.MavenDependencyType
 import org.gradle.internal.resource.local.LocallyAvailableResource
 import org.gradle.internal.resource.local.PathKeyFileStore
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.AttributeTestUtil
+import org.gradle.util.TestUtil
 import org.gradle.util.internal.SimpleMapInterner
 import org.junit.Rule
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.nio.charset.StandardCharsets
+
 class ModuleMetadataStoreTest extends Specification {
 
     @Rule TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider(getClass())
@@ -69,4 +79,54 @@ class ModuleMetadataStoreTest extends Specification {
         };
         1 * serializer.write(_, descriptor, _)
     }
+
+    def "stored descriptor can be read back with repeated strings"() {
+        given:
+        def serializingStore = new ModuleMetadataStore(pathKeyFileStore, moduleMetadataSerializer(), moduleIdentifierFactory, SimpleMapInterner.notThreadSafe())
+        def key = new ModuleComponentAtRepositoryKey(repository, moduleComponentIdentifier)
+        File descriptorFile = temporaryFolder.file("fileStoreEntry")
+        def dependencies = ["core", "api", "impl"].collect { name ->
+            new MavenDependencyDescriptor(
+                MavenScope.Compile,
+                MavenDependencyType.DEPENDENCY,
+                DefaultModuleComponentSelector.newSelector(DefaultModuleIdentifier.newId("org.shared.group", name), "1.0"),
+                null,
+                []
+            )
+        }
+        def descriptor = mavenMetadataFactory.create(moduleComponentIdentifier, dependencies).asImmutable()
+        pathKeyFileStore.add("org.test/testArtifact/1.0/repositoryId/descriptor.bin", _) >> { path, action ->
+            action.execute(descriptorFile); fileStoreEntry
+        }
+        pathKeyFileStore.get("org.test", "testArtifact", "1.0", "repositoryId", "descriptor.bin") >> fileStoreEntry
+        fileStoreEntry.getFile() >> descriptorFile
+
+        when:
+        serializingStore.putModuleDescriptor(key, descriptor)
+        def readDescriptor = serializingStore.getModuleDescriptor(key)
+
+        then:
+        readDescriptor.asImmutable() == descriptor
+        def groups = readDescriptor.dependencies*.selector*.group
+        groups == ["org.shared.group"] * 3
+        groups.every { it.is(groups[0]) }
+
+        and:
+        // Repeated strings are written once and then referenced by index
+        occurrencesOf("org.shared.grou", descriptorFile.bytes) == 1
+    }
+
+    private ModuleMetadataSerializer moduleMetadataSerializer() {
+        new ModuleMetadataSerializer(
+            new DesugaredAttributeContainerSerializer(AttributeTestUtil.attributesFactory(), TestUtil.objectInstantiator()),
+            new CapabilitySelectorSerializer(),
+            mavenMetadataFactory,
+            DependencyManagementTestUtil.ivyMetadataFactory(),
+            new ModuleSourcesSerializer([:])
+        )
+    }
+
+    private static int occurrencesOf(String text, byte[] bytes) {
+        new String(bytes, StandardCharsets.ISO_8859_1).count(text)
+    }
 }
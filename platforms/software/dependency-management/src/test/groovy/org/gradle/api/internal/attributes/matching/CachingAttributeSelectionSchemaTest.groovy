@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.attributes.matching
+
+import org.gradle.api.attributes.Attribute
+import org.gradle.util.TestUtil
+import spock.lang.Specification
+
+class CachingAttributeSelectionSchemaTest extends Specification {
+
+    def delegate = Mock(AttributeSelectionSchema)
+    def schema = new CachingAttributeSelectionSchema(delegate, TestUtil.inMemoryCacheFactory())
+    def attribute = Attribute.of("flavor", String)
+
+    def "caches disambiguation results"() {
+        when:
+        def first = schema.disambiguate(attribute, "free", ["free", "paid"] as Set)
+        def second = schema.disambiguate(attribute, "free", ["paid", "free"] as Set)
+
+        then:
+        1 * delegate.disambiguate(attribute, "free", ["free", "paid"] as Set) >> (["free"] as Set)
+        0 * delegate._
+        first == ["free"] as Set
+        second == ["free"] as Set
+    }
+
+    def "caches disambiguation without a requested value or a result"() {
+        when:
+        def first = schema.disambiguate(attribute, null, ["free", "paid"] as Set)
+        def second = schema.disambiguate(attribute, null, ["free", "paid"] as Set)
+
+        then:
+        1 * delegate.disambiguate(attribute, null, ["free", "paid"] as Set) >> null
+        0 * delegate._
+        first == null
+        second == null
+    }
+
+    def "does not share disambiguation results between different candidates"() {
+        when:
+        schema.disambiguate(attribute, "free", ["free", "paid"] as Set)
+        schema.disambiguate(attribute, "free", ["free", "trial"] as Set)
+
+        then:
+        1 * delegate.disambiguate(attribute, "free", ["free", "paid"] as Set) >> (["free"] as Set)
+        1 * delegate.disambiguate(attribute, "free", ["free", "trial"] as Set) >> (["free"] as Set)
+    }
+}
@@ -280,6 +280,22 @@ ${nameClash { noIntro().kind('dependency bundles').inConflict('one.cool', 'oneCo
         plugin.version.requiredVersion == '1.2'
     }
 
+    def "sub accessors are created once on first access"() {
+        when:
+        generate {
+            library('groovy-core', 'org.codehaus.groovy:groovy:3.0.5')
+            library('groovy-json', 'org.codehaus.groovy:groovy-json:3.0.5')
+            version('groovy', '3.0.5')
+        }
+
+        then:
+        def libs = sources.compile()
+        libs.groovy.is(libs.groovy)
+        libs.versions.is(libs.versions)
+        libs.groovy.json.get().module.name == 'groovy-json'
+        libs.versions.groovy.get() == '3.0.5'
+    }
+
     @VersionCatalogProblemTestFor(
         VersionCatalogProblemId.RESERVED_ALIAS_NAME
     )
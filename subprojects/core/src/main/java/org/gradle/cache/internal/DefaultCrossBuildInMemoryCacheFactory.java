@@ -16,25 +16,34 @@
 
 package org.gradle.cache.internal;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.gradle.cache.ManualEvictionInMemoryCache;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.classloader.VisitableURLClassLoader;
 import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.lazy.Lazy;
 import org.gradle.internal.session.BuildSessionLifecycleListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import java.lang.ref.SoftReference;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 
 import static java.util.Collections.synchronizedMap;
@@ -49,6 +58,8 @@
  */
 @ThreadSafe
 public class DefaultCrossBuildInMemoryCacheFactory implements CrossBuildInMemoryCacheFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultCrossBuildInMemoryCacheFactory.class);
+
     private final ListenerManager listenerManager;
 
     public DefaultCrossBuildInMemoryCacheFactory(ListenerManager listenerManager) {
@@ -88,6 +99,13 @@ public <K, V> CrossBuildInMemoryCache<K, V> newCacheRetainingDataFromPreviousBui
         return cache;
     }
 
+    @Override
+    public <K, V> CrossBuildInMemoryCache<K, V> newBoundedCache(String displayName, long maxWeight, ToLongFunction<? super V> weigher) {
+        DefaultBoundedCrossBuildInMemoryCache<K, V> cache = new DefaultBoundedCrossBuildInMemoryCache<>(displayName, maxWeight, weigher);
+        listenerManager.addListener(cache);
+        return cache;
+    }
+
     @Override
     public <V> CrossBuildInMemoryCache<Class<?>, V> newClassCache() {
         // TODO: Should use some variation of DefaultClassMap below to associate values with classes, as currently we retain a strong reference to each value for one session after the ClassLoader
@@ -250,6 +268,184 @@ protected V maybeGetRetainedValue(K key) {
         }
     }
 
+    /**
+     * Retains values across sessions in least recently used order, up to a maximum total weight.
+     *
+     * When a value does not fit, it is only admitted if it has been looked up more often than each of the values it would replace,
+     * as estimated by a {@link FrequencySketch}. This keeps values that are used in most builds from being flushed out by values used only once.
+     */
+    @VisibleForTesting
+    static class DefaultBoundedCrossBuildInMemoryCache<K, V> extends AbstractCrossBuildInMemoryCache<K, V> {
+        private final String displayName;
+        private final long maxWeight;
+        private final ToLongFunction<? super V> weigher;
+        private final FrequencySketch frequencies = new FrequencySketch();
+        // Access ordered, guarded by this
+        private final LinkedHashMap<K, WeightedValue<V>> retainedValues = new LinkedHashMap<>(16, 0.75f, true);
+        private long retainedWeight;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+
+        public DefaultBoundedCrossBuildInMemoryCache(String displayName, long maxWeight, ToLongFunction<? super V> weigher) {
+            this.displayName = displayName;
+            this.maxWeight = maxWeight;
+            this.weigher = weigher;
+        }
+
+        @Override
+        protected void retainValuesFromCurrentSession(Stream<V> values) {
+            // Values are retained as they are produced
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("{}: {} hits, {} misses, {} evictions, {} rejections, retaining {} of {}.",
+                    displayName, getHitCount(), getMissCount(), getEvictionCount(), getRejectionCount(), getRetainedWeight(), maxWeight);
+            }
+        }
+
+        @Override
+        protected synchronized void discardRetainedValues() {
+            retainedValues.clear();
+            retainedWeight = 0;
+        }
+
+        @Override
+        protected synchronized void retainValue(K key, V v) {
+            WeightedValue<V> previous = retainedValues.remove(key);
+            if (previous != null) {
+                retainedWeight -= previous.weight;
+            }
+            long weight = weigher.applyAsLong(v);
+            if (weight > maxWeight) {
+                rejections.increment();
+                return;
+            }
+
+            List<K> victims = new ArrayList<>();
+            long freedWeight = 0;
+            int frequency = frequencies.frequency(key);
+            Iterator<Map.Entry<K, WeightedValue<V>>> iterator = retainedValues.entrySet().iterator();
+            while (retainedWeight - freedWeight + weight > maxWeight) {
+                Map.Entry<K, WeightedValue<V>> victim = iterator.next();
+                if (frequencies.frequency(victim.getKey()) > frequency) {
+                    rejections.increment();
+                    return;
+                }
+                victims.add(victim.getKey());
+                freedWeight += victim.getValue().weight;
+            }
+
+            for (K victim : victims) {
+                retainedValues.remove(victim);
+            }
+            evictions.add(victims.size());
+            retainedWeight -= freedWeight;
+            retainedValues.put(key, new WeightedValue<>(v, weight));
+            retainedWeight += weight;
+        }
+
+        @Nullable
+        @Override
+        protected synchronized V maybeGetRetainedValue(K key) {
+            frequencies.increment(key);
+            WeightedValue<V> retained = retainedValues.get(key);
+            if (retained == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return retained.value;
+        }
+
+        public long getHitCount() {
+            return hits.sum();
+        }
+
+        public long getMissCount() {
+            return misses.sum();
+        }
+
+        public long getEvictionCount() {
+            return evictions.sum();
+        }
+
+        public long getRejectionCount() {
+            return rejections.sum();
+        }
+
+        public synchronized long getRetainedWeight() {
+            return retainedWeight;
+        }
+    }
+
+    private static class WeightedValue<V> {
+        private final V value;
+        private final long weight;
+
+        WeightedValue(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A count-min sketch of 4 bit counters that estimates how often keys have been looked up.
+     * The counters are halved periodically, so that the estimates favor recent lookups. Not thread-safe.
+     */
+    private static class FrequencySketch {
+        private static final int WIDTH = 4096;
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int SAMPLE_SIZE = 10 * WIDTH;
+        private static final int[] SEEDS = {0x97cb3127, 0xb0a15b4d, 0x2c1b3c6d, 0x297a2d39};
+
+        private final byte[][] counters = new byte[DEPTH][WIDTH];
+        private int additions;
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean incremented = false;
+            for (int i = 0; i < DEPTH; i++) {
+                int index = indexOf(hash, i);
+                if (counters[i][index] < MAX_COUNT) {
+                    counters[i][index]++;
+                    incremented = true;
+                }
+            }
+            if (incremented && ++additions == SAMPLE_SIZE) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, counters[i][indexOf(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private static int indexOf(int hash, int row) {
+            int h = (hash + SEEDS[row]) * SEEDS[row];
+            return (h ^ (h >>> 16)) & (WIDTH - 1);
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+    }
+
     /**
      * Retains strong references to the keys and values via the key's ClassLoader. This allows the ClassLoader to be collected.
      */
@@ -33,6 +33,11 @@
 
     D getData();
 
+    /**
+     * Returns the size in bytes of the compiled classes of this script, which approximates the heap retained once they are loaded.
+     */
+    long getClassesSize();
+
     /**
      * Called when this script is reused in a new build invocation.
      */
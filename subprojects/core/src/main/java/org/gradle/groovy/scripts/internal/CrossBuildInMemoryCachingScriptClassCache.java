@@ -29,10 +29,20 @@
 
 @ServiceScope(Scope.UserHome.class)
 public class CrossBuildInMemoryCachingScriptClassCache {
+    /**
+     * Limits the total size in bytes of the compiled script classes retained across builds. By default, compiled scripts are retained until the JVM runs low on memory.
+     */
+    public static final String MAX_RETAINED_SIZE_PROPERTY = "org.gradle.internal.script-cache.max-retained-size";
+
     private final CrossBuildInMemoryCache<ScriptCacheKey, CachedCompiledScript> cachedCompiledScripts;
+    private final boolean bounded;
 
     public CrossBuildInMemoryCachingScriptClassCache(CrossBuildInMemoryCacheFactory cacheFactory) {
-        cachedCompiledScripts = cacheFactory.newCache();
+        Long maxRetainedSize = Long.getLong(MAX_RETAINED_SIZE_PROPERTY);
+        bounded = maxRetainedSize != null;
+        cachedCompiledScripts = bounded
+            ? cacheFactory.newBoundedCache("compiled script cache", maxRetainedSize, script -> script.size)
+            : cacheFactory.newCache();
     }
 
     public <T extends Script, M> CompiledScript<T, M> getOrCompile(
@@ -54,17 +64,21 @@ public <T extends Script, M> CompiledScript<T, M> getOrCompile(
             }
         }
         CompiledScript<T, M> compiledScript = delegate.compile(source, scriptBaseClass, target, targetScope, operation, verifier);
-        cachedCompiledScripts.put(key, new CachedCompiledScript(hash, compiledScript));
+        // The size is only needed to bound the cache, and is measured here rather than by the cache, which weighs values under its lock
+        long size = bounded ? compiledScript.getClassesSize() : 0;
+        cachedCompiledScripts.put(key, new CachedCompiledScript(hash, compiledScript, size));
         return compiledScript;
     }
 
     private static class CachedCompiledScript {
         private final HashCode hash;
         private final CompiledScript<?, ?> compiledScript;
+        private final long size;
 
-        private CachedCompiledScript(HashCode hash, CompiledScript<?, ?> compiledScript) {
+        private CachedCompiledScript(HashCode hash, CompiledScript<?, ?> compiledScript, long size) {
             this.hash = hash;
             this.compiledScript = compiledScript;
+            this.size = size;
         }
     }
 
@@ -20,6 +20,7 @@
 import groovy.lang.GroovyCodeSource;
 import groovy.lang.GroovyResourceLoader;
 import groovy.lang.Script;
+import org.apache.commons.io.FileUtils;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.stmt.Statement;
 import org.codehaus.groovy.control.CompilationFailedException;
@@ -345,6 +346,17 @@ public M getData() {
             return metadata;
         }
 
+        @Override
+        public long getClassesSize() {
+            long size = 0;
+            for (File file : scriptClassPath.getAsFiles()) {
+                if (file.exists()) {
+                    size += FileUtils.sizeOf(file);
+                }
+            }
+            return size;
+        }
+
         @Override
         public void onReuse() {
             if (scriptClass != null) {
@@ -368,6 +368,11 @@ public Class<? extends T> loadClass() {
         public M getData() {
             return data;
         }
+
+        @Override
+        public long getClassesSize() {
+            return 0;
+        }
     }
 
     private static class BuildScriptRemapper extends ClassVisitor implements Opcodes {
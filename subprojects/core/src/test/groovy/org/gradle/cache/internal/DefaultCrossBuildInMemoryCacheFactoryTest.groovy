@@ -96,4 +96,81 @@ class DefaultCrossBuildInMemoryCacheFactoryTest extends AbstractCrossBuildInMemo
         cache.put(String, c)
         cache.getIfPresent(String) == c
     }
+
+    def "bounded cache evicts least recently used values when budget is exceeded"() {
+        def function = Mock(Function)
+        def cache = factory.newBoundedCache("test", 2, { 1L })
+
+        when:
+        cache.get("a", function)
+        cache.get("b", function)
+        endSession()
+        cache.get("c", function)
+        endSession()
+
+        then:
+        1 * function.apply("a") >> "a"
+        1 * function.apply("b") >> "b"
+        1 * function.apply("c") >> "c"
+        0 * function._
+        cache.evictionCount == 1
+        cache.retainedWeight == 2
+
+        when:
+        cache.get("b", function)
+        cache.get("a", function)
+
+        then:
+        1 * function.apply("a") >> "a"
+        0 * function._
+        cache.hitCount == 1
+        cache.missCount == 4
+        cache.evictionCount == 2
+        cache.retainedWeight == 2
+    }
+
+    def "bounded cache does not replace frequently used value with less frequently used value"() {
+        def function = Mock(Function)
+        def cache = factory.newBoundedCache("test", 1, { 1L })
+
+        when:
+        cache.get("a", function)
+        endSession()
+        cache.get("a", function)
+        endSession()
+        cache.get("c", function)
+        endSession()
+        cache.get("a", function)
+        cache.get("c", function)
+
+        then:
+        1 * function.apply("a") >> "a"
+        2 * function.apply("c") >> "c"
+        0 * function._
+        cache.evictionCount == 0
+        cache.rejectionCount == 2
+    }
+
+    def "bounded cache does not retain values heavier than the budget"() {
+        def function = Mock(Function)
+        def cache = factory.newBoundedCache("test", 10, { String value -> value.length() as long })
+
+        when:
+        cache.get("a", function)
+        cache.get("b", function)
+        endSession()
+        cache.get("a", function)
+        cache.get("b", function)
+
+        then:
+        1 * function.apply("a") >> "small"
+        2 * function.apply("b") >> "much too large"
+        0 * function._
+        cache.rejectionCount == 2
+        cache.retainedWeight == 5
+    }
+
+    private void endSession() {
+        listenerManager.getBroadcaster(BuildSessionLifecycleListener).beforeComplete()
+    }
 }
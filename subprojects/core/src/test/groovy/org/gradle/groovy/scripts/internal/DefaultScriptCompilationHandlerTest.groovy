@@ -146,6 +146,7 @@ class DefaultScriptCompilationHandlerTest extends Specification {
         then:
         compiledScript.runDoesSomething
         compiledScript.data == null
+        compiledScript.classesSize >= cachedFile.length()
         Script script = JavaReflectionUtil.newInstance(compiledScript.loadClass())
         evaluateScript(script)
     }